@@ -0,0 +1,121 @@
+package com.playwright.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.options.ScreenshotType;
+import com.playwright.utils.ScreenshotUtil;
+
+/**
+ * Screenshot encoding cost per format and Locator versus raw selector calls
+ * on the same page. Both screenshot benchmarks first change a counter on the
+ * page, so every image differs: rawScreenshot is the capture alone, and
+ * screenshotUtilCapture is capture, hashing and the completed file write
+ * (ScreenshotUtil's dedup never hits).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class CaptureBenchmark {
+
+    @Param({"png", "jpeg"})
+    String format;
+
+    Playwright playwright;
+    Browser browser;
+    Page page;
+    StaticSite site;
+    Locator cachedCell;
+    ScreenshotUtil.CaptureOptions captureOptions;
+    int captures;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        site = new StaticSite();
+        playwright = Playwright.create();
+        browser = playwright.chromium().launch(new BrowserType.LaunchOptions().setHeadless(true));
+        page = browser.newPage(new Browser.NewPageOptions().setViewportSize(1920, 1080));
+        page.navigate(site.url());
+        cachedCell = page.locator(".cell").first();
+        captureOptions = "jpeg".equals(format) ? new ScreenshotUtil.CaptureOptions().jpeg(80) : new ScreenshotUtil.CaptureOptions().png();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        browser.close();
+        playwright.close();
+        site.close();
+    }
+
+    /** Change what is rendered so consecutive captures are never identical. */
+    private void changeCounter() {
+        page.evaluate("n => { let e = document.getElementById('bench-counter');"
+                + " if (!e) { e = document.body.appendChild(document.createElement('div')); e.id = 'bench-counter'; }"
+                + " e.textContent = n; }", ++captures);
+    }
+
+    @Benchmark
+    public byte[] rawScreenshot() {
+        changeCounter();
+        Page.ScreenshotOptions options = new Page.ScreenshotOptions()
+                .setType("jpeg".equals(format) ? ScreenshotType.JPEG : ScreenshotType.PNG);
+        if ("jpeg".equals(format)) {
+            options.setQuality(80);
+        }
+        return page.screenshot(options);
+    }
+
+    @Benchmark
+    public String screenshotUtilCapture() {
+        changeCounter();
+        ScreenshotUtil.ScreenshotHandle handle = ScreenshotUtil.capture(page, "bench", captureOptions);
+        return handle == null ? null : handle.written().join();
+    }
+
+    @Benchmark
+    public String rawSelectorText() {
+        return page.textContent(".cell");
+    }
+
+    @Benchmark
+    public String newLocatorText() {
+        return page.locator(".cell").first().textContent();
+    }
+
+    @Benchmark
+    public String cachedLocatorText() {
+        return cachedCell.textContent();
+    }
+
+    @Benchmark
+    public void rawSelectorFill() {
+        page.fill("#name", "benchmark");
+    }
+
+    @Benchmark
+    public void newLocatorFill() {
+        page.locator("#name").fill("benchmark");
+    }
+}
@@ -0,0 +1,169 @@
+package com.playwright.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.playwright.BaseSetup;
+import com.playwright.BrowserPool;
+import com.playwright.ContextPrewarmer;
+
+/**
+ * Cost of each lifecycle level: a Playwright driver, a browser launch, a
+ * context (with and without video recording), a page, and the harness
+ * BaseSetup.init()/close() pair that every test method pays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LifecycleBenchmark {
+
+    @State(Scope.Thread)
+    public static class Driver {
+        Playwright playwright;
+        StaticSite site;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            playwright = Playwright.create();
+            site = new StaticSite();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            playwright.close();
+            site.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Launched {
+        Browser browser;
+        Path videoDir;
+
+        @Setup(Level.Trial)
+        public void setUp(Driver driver) throws IOException {
+            browser = driver.playwright.chromium().launch(new BrowserType.LaunchOptions().setHeadless(true));
+            videoDir = Files.createTempDirectory("bench-video");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            browser.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class WithContext {
+        BrowserContext context;
+
+        @Setup(Level.Trial)
+        public void setUp(Launched launched) {
+            context = launched.browser.newContext();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Harness {
+        @Param({"off", "retain-on-failure"})
+        String video;
+
+        // set explicitly: BaseSetup's platform default maps to Edge, which CI agents lack
+        @Param({"chromium"})
+        String browser;
+
+        BaseSetup setup;
+        StaticSite site;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            System.setProperty("browser", browser);
+            System.setProperty("headless", "true");
+            System.setProperty("video", video);
+            setup = new BaseSetup();
+            site = new StaticSite();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            setup.close();
+            // BaseSetup.close() keeps the pooled browser and driver for the next test
+            ContextPrewarmer.shutdown();
+            BrowserPool.shutdown();
+            site.close();
+        }
+    }
+
+    @Benchmark
+    public void newPlaywright() {
+        try (Playwright playwright = Playwright.create()) {
+            playwright.selectors();
+        }
+    }
+
+    @Benchmark
+    public void reusedPlaywrightNewBrowser(Driver driver) {
+        driver.playwright.chromium().launch(new BrowserType.LaunchOptions().setHeadless(true)).close();
+    }
+
+    @Benchmark
+    public void newContext(Launched launched) {
+        launched.browser.newContext().close();
+    }
+
+    @Benchmark
+    public void newContextWithVideo(Launched launched, Driver driver) {
+        BrowserContext context = launched.browser.newContext(new Browser.NewContextOptions().setRecordVideoDir(launched.videoDir));
+        context.newPage().navigate(driver.site.url());
+        context.close();
+    }
+
+    @Benchmark
+    public void newContextNoVideo(Launched launched, Driver driver) {
+        BrowserContext context = launched.browser.newContext();
+        context.newPage().navigate(driver.site.url());
+        context.close();
+    }
+
+    @Benchmark
+    public void newPage(WithContext context) {
+        Page page = context.context.newPage();
+        page.close();
+    }
+
+    @Benchmark
+    public String harnessInitNavigateClose(Harness harness) {
+        harness.setup.init();
+        harness.setup.navigate(harness.site.url());
+        String title = harness.setup.title();
+        harness.setup.close();
+        return title;
+    }
+}
@@ -0,0 +1,55 @@
+package com.playwright.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local static page for the benchmarks so results do not depend on the
+ * network or a third-party site. Serves one form-and-table page on an
+ * ephemeral localhost port.
+ */
+public final class StaticSite implements AutoCloseable {
+    static final String PAGE = "<!DOCTYPE html><html><head><title>Benchmark page</title></head><body>"
+            + "<h3>Benchmark page</h3>"
+            + "<form><input id=\"name\" name=\"name\" value=\"\"><input id=\"email\" name=\"email\" value=\"\">"
+            + "<button id=\"submit\" type=\"button\">Submit</button></form>"
+            + "<table id=\"rows\">" + rows(50) + "</table>"
+            + "<a id=\"link\" href=\"/\" target=\"_blank\">Open again</a>"
+            + "</body></html>";
+
+    private final HttpServer server;
+
+    public StaticSite() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = PAGE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static String rows(int count) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            out.append("<tr><td class=\"cell\">row ").append(i).append("</td><td>").append(i * 7).append("</td></tr>");
+        }
+        return out.toString();
+    }
+}
@@ -1,208 +1,328 @@
 package com.playwright;
 
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import org.testng.ITestResult;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.AfterSuite;
-import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
-import org.testng.annotations.BeforeTest;
 
-import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
-import com.aventstack.extentreports.reporter.ExtentSparkReporter;
-import com.aventstack.extentreports.reporter.configuration.Theme;
+import com.aventstack.extentreports.Status;
 import com.microsoft.playwright.Browser;
 import com.microsoft.playwright.BrowserContext;
-import com.microsoft.playwright.BrowserType;
 import com.microsoft.playwright.Page;
-import com.microsoft.playwright.Playwright;
+import com.playwright.fixtures.FixtureServer;
+import com.playwright.report.EventLog;
+import com.playwright.report.EventLogRenderer;
+import com.playwright.report.TestReporter;
+import com.playwright.utils.BackgroundIo;
+import com.playwright.utils.PageRegistry;
+import com.playwright.utils.SelectorMetrics;
+import com.playwright.utils.StepMetrics;
+import com.playwright.utils.WebPerf;
 
 /**
  * BaseSetup provides TestNG lifecycle hooks and manages Playwright and
- * reporting resources. It initializes ExtentReports in @BeforeSuite and
- * creates a Playwright BrowserContext with video recording enabled per-test
- * in @BeforeTest. Use getPage() in page objects and tests.
+ * reporting resources. Report events are streamed to an append-only event
+ * log while tests run and the ExtentReports HTML is rendered from it once in
+ * @AfterSuite. A Playwright BrowserContext is created per test method in
+ * @BeforeMethod. Browsers come from BrowserPool and are only closed at the
+ * end of the suite. Playwright handles and the TestReporter are kept per
+ * thread, so the class is safe to use with TestNG parallel modes. Use
+ * getPage() in page objects and tests.
  */
 public class BaseSetup implements AutoCloseable {
-	private Playwright playwright;
-	private Browser browser;
-	private BrowserContext context;
-	private Page page;
-	private static String platformName;
-	private static String platformVersion;
+	private static final ThreadLocal<Browser> BROWSER = new ThreadLocal<>();
+	private static final ThreadLocal<BrowserContext> CONTEXT = new ThreadLocal<>();
+	private static final ThreadLocal<Page> PAGE = new ThreadLocal<>();
+	private static final ThreadLocal<BrowserSpec> SPEC = new ThreadLocal<>();
+	// every page opened in the current context, including closed popups, for video cleanup
+	private static final ThreadLocal<List<Page>> OPENED_PAGES = ThreadLocal.withInitial(ArrayList::new);
 
-	// Extent reporting
-	protected static ExtentReports extent;
-	protected static ExtentTest testReporter;
+	// Reporting: events are streamed to EventLog and rendered once at suite end
+	private static final ThreadLocal<TestReporter> TEST_REPORTER = new ThreadLocal<>();
 
 	/**
-	 * Public accessor for tests and page objects to log to the current ExtentTest.
+	 * Public accessor for tests and page objects to log to the reporter of
+	 * the test method running on the current thread.
 	 */
-	public static ExtentTest getTestReporter() {
-		return testReporter;
+	public static TestReporter getTestReporter() {
+		return TEST_REPORTER.get();
 	}
 
 	@BeforeSuite(alwaysRun = true)
 	public void beforeSuite() {
-		// initialize ExtentReports
-	String reportPath = Paths.get("target", "reports", "AutomationReport.html").toString();
-	ExtentSparkReporter spark = new ExtentSparkReporter(reportPath);
-	spark.config().setTheme(Theme.STANDARD);
-	spark.config().setDocumentTitle("Automation Report");
-	spark.config().setReportName("Playwright Java Tests");
+		// start a fresh event log; the HTML report is rendered from it in afterSuite
+		EventLog.open();
+		if (usesFixtures()) {
+			FixtureServer.start();
+		}
+	}
+
+	/**
+	 * Base URL of the demo pages (/inputs, /windows, /windows/new). Defaults to
+	 * the local FixtureServer; -DbaseUrl=https://the-internet.herokuapp.com
+	 * runs against the public site instead.
+	 */
+	public static String baseUrl() {
+		String configured = System.getProperty("baseUrl", "").trim();
+		return configured.isEmpty() ? FixtureServer.start().baseUrl() : configured;
+	}
+
+	/**
+	 * URL of the login page. Defaults to the FixtureServer login flow;
+	 * -DloginUrl=https://opensource-demo.orangehrmlive.com/ uses the public demo.
+	 */
+	public static String loginUrl() {
+		String configured = System.getProperty("loginUrl", "").trim();
+		return configured.isEmpty() ? FixtureServer.start().baseUrl() + "/" : configured;
+	}
 
-	extent = new ExtentReports();
-	extent.attachReporter(spark);
+	private static boolean usesFixtures() {
+		return System.getProperty("baseUrl", "").isBlank() || System.getProperty("loginUrl", "").isBlank();
 	}
 
-	@BeforeTest(alwaysRun = true)
-	public void beforeTest() {
-		init();
-		// create a default ExtentTest for this test
-		testReporter = extent.createTest(this.getClass().getSimpleName());
+	@BeforeMethod(alwaysRun = true)
+	public void beforeMethod(Method method) {
+		init(method.getName());
+		// start reporting this test method on the current thread
+		TEST_REPORTER.set(TestReporter.start(getClass().getSimpleName() + "." + method.getName(), getClass().getName()));
 	}
 
 	/**
-	 * Initialize Playwright, launch a browser and create a new page.
-	 * BrowserContext will be created with video recording enabled and
-	 * videos will land under target/videos.
+	 * Lease a pooled browser for the configured browser and create a new
+	 * context and page for the current thread. The Playwright driver and
+	 * browser stay alive in BrowserPool between tests; only the context is
+	 * created per call. With -Dprewarm=true the context and page are built in
+	 * the background while the previous test runs (see ContextPrewarmer).
+	 * Video recording follows VideoPolicy; recorded videos land under
+	 * target/videos.
 	 */
 	public void init() {
+		init(null);
+	}
+
+	/**
+	 * Same as {@link #init()}, naming the test method so per-test artifacts
+	 * such as HAR archives can be told apart.
+	 */
+	protected void init(String testName) {
         // Get platform configuration from system properties
-        platformName = System.getProperty("platformName", "windows10");
-        platformVersion = System.getProperty("platformVersion", "10");
+        String platformName = System.getProperty("platformName", "windows10");
+        String platformVersion = System.getProperty("platformVersion", "10");
 
         // Allow tests to explicitly choose a browser via -Dbrowser=(chrome|edge|chromium|firefox|webkit)
-        String browserProp = System.getProperty("browser", "").trim().toLowerCase();
-        String headlessProp = System.getProperty("headless", "false").trim().toLowerCase();
-        boolean headless = headlessProp.equals("true");
-
-        playwright = Playwright.create();
-
-        BrowserType browserType = playwright.chromium();
-        BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions().setHeadless(headless);
-
-        if (!browserProp.isEmpty()) {
-            switch (browserProp) {
-                case "edge":
-                    // Edge is Chromium-based, use chromium with msedge channel
-                    browserType = playwright.chromium();
-                    launchOptions.setChannel("msedge");
-                    break;
-                case "chrome":
-                    browserType = playwright.chromium();
-                    launchOptions.setChannel("chrome");
-                    break;
-                case "chromium":
-                    browserType = playwright.chromium();
-                    // no channel, use bundled/system chromium
-                    break;
-                case "firefox":
-                    browserType = playwright.firefox();
-                    break;
-                case "webkit":
-                    browserType = playwright.webkit();
-                    break;
-                default:
-                    // unknown value - fall back to platform mapping below
-                    browserProp = "";
-            }
-        }
-
-        // If browser not explicitly set, choose by platform
-        if (browserProp.isEmpty()) {
-            if (platformName.equalsIgnoreCase("windows10")) {
-                browserType = playwright.chromium();
-                launchOptions.setChannel("msedge");  // Use Edge on Windows 10
-            } else if (platformName.equalsIgnoreCase("windows11")) {
-                browserType = playwright.chromium();
-                launchOptions.setChannel("chrome");  // Use Chrome on Windows 11
-            }
-        }
-
-        browser = browserType.launch(launchOptions);		// Create context with platform-specific settings
+        BrowserSpec spec = BrowserSpec.fromSystemProperties(platformName);
+
+        // init() may be called again on the same thread; drop the previous context first
+        close();
+		Browser.NewContextOptions contextOptions = contextOptions(platformName, platformVersion);
+		Browser browser;
+		BrowserContext context;
+		Page page;
+		if (ContextPrewarmer.enabled()) {
+			// take the context built in the background while the previous test ran
+			ContextPrewarmer.Prepared prepared = ContextPrewarmer.take(spec, contextOptions);
+			browser = prepared.browser();
+			context = prepared.context();
+			page = prepared.page();
+		} else {
+			browser = BrowserPool.lease(spec);
+			context = browser.newContext(contextOptions);
+			page = null;
+		}
+
+		// published before the per-test setup below so close() cleans up if it throws
+		SPEC.set(spec);
+		BROWSER.set(browser);
+		CONTEXT.set(context);
+		List<Page> opened = OPENED_PAGES.get();
+		if (page != null) {
+			opened.add(page);
+		}
+		context.onPage(opened::add);
+		// index popups and tabs from the start so lookups never miss an early one
+		PageRegistry.of(context);
+		// record or replay network traffic per -Dnetwork; registered first so the
+		// routing profile below sees requests before the HAR route does
+		NetworkMode.fromSystemProperties().apply(context, getClass(), testName);
+		// abort resources no test asserts on, per @UseRoutingProfile or -DnetworkProfile
+		RoutingProfile.forClass(getClass()).apply(context);
+		// trace for this test, written only if it is kept (see TraceRecorder)
+		TraceRecorder.start(context, getClass(), testName);
+		PAGE.set(page != null ? page : context.newPage());
+	}
+
+	/**
+	 * Context options that do not depend on the test: viewport, video
+	 * recording per VideoPolicy and the platform user agent. Per-test setup
+	 * (routing, HAR, tracing) is applied to the created context in init().
+	 */
+	protected Browser.NewContextOptions contextOptions(String platformName, String platformVersion) {
 		Browser.NewContextOptions contextOptions = new Browser.NewContextOptions()
-				.setRecordVideoDir(Paths.get("target", "videos"))
 				.setViewportSize(1920, 1080);
-				
+		if (VideoPolicy.fromSystemProperties().records()) {
+			contextOptions.setRecordVideoDir(Paths.get("target", "videos"));
+			int[] videoSize = VideoPolicy.videoSize();
+			if (videoSize != null) {
+				contextOptions.setRecordVideoSize(videoSize[0], videoSize[1]);
+			}
+		}
+
 		// Add platform metadata
 		contextOptions.setUserAgent("Playwright-Java/" + platformName + "/" + platformVersion);
-
-		context = browser.newContext(contextOptions);
-		page = context.newPage();
+		return contextOptions;
 	}
 
-	/** Returns the single Page instance for use by page objects and tests. */
+	/** Returns the Page of the current thread for use by page objects and tests. */
 	public Page getPage() {
-		return page;
+		return PAGE.get();
 	}
 
 	public Browser getBrowser() {
-		return browser;
+		return BROWSER.get();
+	}
+
+	/**
+	 * Browser label for metrics: BrowserSpec.key() of the current thread's
+	 * test (e.g. "chromium/msedge/headed"), so channels of one engine are told
+	 * apart. Outside a BaseSetup test the page's engine name is used.
+	 */
+	public static String browserLabel(Page page) {
+		BrowserSpec spec = SPEC.get();
+		if (spec != null) {
+			return spec.key();
+		}
+		try {
+			Browser browser = page.context().browser();
+			return browser == null ? "unknown" : browser.browserType().name();
+		} catch (Exception e) {
+			return "unknown";
+		}
 	}
 
 	public BrowserContext getContext() {
-		return context;
+		return CONTEXT.get();
+	}
+
+	/** Pages of the current context by creation order and opener (see PageRegistry). */
+	public PageRegistry getPages() {
+		return PageRegistry.of(getContext());
 	}
 
-	/** Simple helper to navigate using the shared page. */
+	/** Navigate the shared page and record its web performance metrics (see WebPerf). */
 	public void navigate(String url) {
-		page.navigate(url);
+		getPage().navigate(url);
+		WebPerf.capture(getPage());
 	}
 
 	/** Returns the current page title. */
 	public String title() {
-		return page.title();
+		return getPage().title();
 	}
 
-	@AfterTest(alwaysRun = true)
-	public void afterTest() {
-		// close Playwright resources for this test
-		close();
-		// flush extent for this test
-		if (extent != null) {
-			extent.flush();
+	@AfterMethod(alwaysRun = true)
+	public void afterMethod(ITestResult result) {
+		// close Playwright resources for this test method
+		close(result.isSuccess());
+		TestReporter reporter = TEST_REPORTER.get();
+		if (reporter != null) {
+			Status status = result.isSuccess() ? Status.PASS
+					: result.getStatus() == ITestResult.SKIP ? Status.SKIP : Status.FAIL;
+			reporter.end(status, result.getThrowable());
 		}
+		TEST_REPORTER.remove();
 	}
 
 	@AfterSuite(alwaysRun = true)
 	public void afterSuite() {
-		// final flush
-		if (extent != null) {
-			extent.flush();
+		// screenshots referenced by the report are written in the background
+		BackgroundIo.awaitPending(30, TimeUnit.SECONDS);
+		// render the HTML report once from the event log; forked children leave it to the parent
+		Path events = EventLog.close();
+		if (events != null && Boolean.parseBoolean(System.getProperty("report.render", "true"))) {
+			try {
+				EventLogRenderer.render(events, EventLog.reportDir().resolve("AutomationReport.html"));
+			} catch (IOException e) {
+				System.out.println("[BaseSetup] Could not render report: " + e.getMessage());
+			}
+		}
+		SelectorMetrics.export();
+		StepMetrics.export();
+		String routing = RoutingProfile.metricsSummary();
+		if (!routing.isEmpty()) {
+			System.out.print("[RoutingProfile] " + routing);
+		}
+		String prewarm = ContextPrewarmer.metricsSummary();
+		if (!prewarm.isEmpty()) {
+			System.out.print("[ContextPrewarmer] " + prewarm);
 		}
+		ContextPrewarmer.shutdown();
+		BrowserPool.shutdown();
+		FixtureServer.stop();
 	}
 
-	/** Cleanly close page, context, browser and playwright. Safe to call multiple times. */
+	/**
+	 * Cleanly close the current thread's page and context. The browser is
+	 * owned by BrowserPool and stays alive for the next test. Safe to call
+	 * multiple times. Videos are treated as belonging to a passed test.
+	 */
 	@Override
 	public void close() {
+		close(true);
+	}
+
+	/**
+	 * Close the current thread's page and context. The trace is saved
+	 * or dropped per TraceRecorder. Under the retain-on-failure video policy
+	 * the videos of a passed test are deleted in the background once the
+	 * context has finished writing them.
+	 */
+	protected void close(boolean passed) {
+		List<Path> videos = new ArrayList<>();
+		if (!VideoPolicy.fromSystemProperties().keeps(passed)) {
+			try {
+				for (Page opened : OPENED_PAGES.get()) {
+					if (opened.video() != null) {
+						videos.add(opened.video().path());
+					}
+				}
+			} catch (Exception ignored) {
+			}
+		}
+		Path trace = TraceRecorder.stop(CONTEXT.get(), passed);
+		if (trace != null && getTestReporter() != null) {
+			getTestReporter().info("Playwright trace: " + trace.toAbsolutePath());
+		}
 		try {
+			Page page = PAGE.get();
 			if (page != null) {
 				page.close();
-				page = null;
 			}
 		} catch (Exception ignored) {
 		}
 		try {
+			BrowserContext context = CONTEXT.get();
 			if (context != null) {
 				context.close();
-				context = null;
 			}
 		} catch (Exception ignored) {
 		}
-		try {
-			if (browser != null) {
-				browser.close();
-				browser = null;
-			}
-		} catch (Exception ignored) {
-		}
-		try {
-			if (playwright != null) {
-				playwright.close();
-				playwright = null;
-			}
-		} catch (Exception ignored) {
+		PAGE.remove();
+		SPEC.remove();
+		CONTEXT.remove();
+		BROWSER.remove();
+		OPENED_PAGES.remove();
+		for (Path video : videos) {
+			BackgroundIo.submit(() -> Files.deleteIfExists(video));
 		}
 	}
 }
@@ -0,0 +1,137 @@
+package com.playwright;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.PlaywrightException;
+
+/**
+ * Keeps Playwright and Browser instances alive for each worker thread and
+ * browser spec, so a test only pays for a fresh BrowserContext and Page.
+ * Playwright is not thread-safe, so every worker thread owns its own driver
+ * and browsers; reuse only happens between tests running on the same thread.
+ */
+public final class BrowserPool {
+    private static final Map<Long, Playwright> PLAYWRIGHTS = new ConcurrentHashMap<>();
+    private static final Map<String, Browser> BROWSERS = new ConcurrentHashMap<>();
+    private static final AtomicBoolean HOOK_REGISTERED = new AtomicBoolean();
+    private static final AtomicBoolean CONNECT_WARNED = new AtomicBoolean();
+
+    private static final AtomicLong LEASES = new AtomicLong();
+    private static final AtomicLong LAUNCHES = new AtomicLong();
+    private static final AtomicLong LEASE_WAIT_NANOS = new AtomicLong();
+    private static final AtomicLong MAX_LEASE_WAIT_NANOS = new AtomicLong();
+
+    private BrowserPool() {
+    }
+
+    /**
+     * Returns the browser for the current worker thread and spec, launching it
+     * (and the worker's Playwright driver) only on first use or after a crash.
+     */
+    public static Browser lease(BrowserSpec spec) {
+        long start = System.nanoTime();
+        registerShutdownHook();
+        long worker = Thread.currentThread().threadId();
+        String key = worker + "|" + spec.key();
+
+        Browser browser = BROWSERS.get(key);
+        if (browser == null || !browser.isConnected()) {
+            Playwright playwright = PLAYWRIGHTS.computeIfAbsent(worker, id -> Playwright.create());
+            browser = open(playwright, spec);
+            BROWSERS.put(key, browser);
+            LAUNCHES.incrementAndGet();
+        }
+
+        long waited = System.nanoTime() - start;
+        LEASES.incrementAndGet();
+        LEASE_WAIT_NANOS.addAndGet(waited);
+        MAX_LEASE_WAIT_NANOS.accumulateAndGet(waited, Math::max);
+        return browser;
+    }
+
+    /**
+     * Launch the spec's browser, or connect to the browser server given in
+     * -DbrowserServer (e.g. a running BrowserServerDaemon) so no browser has
+     * to start in this JVM. The server decides engine and headless mode; if it
+     * cannot be reached the browser is launched locally instead.
+     */
+    static Browser open(Playwright playwright, BrowserSpec spec) {
+        String endpoint = System.getProperty("browserServer", "").trim();
+        if (!endpoint.isEmpty()) {
+            try {
+                return spec.browserType(playwright).connect(endpoint, new BrowserType.ConnectOptions().setTimeout(10000));
+            } catch (PlaywrightException e) {
+                if (CONNECT_WARNED.compareAndSet(false, true)) {
+                    System.out.println("[BrowserPool] Could not connect to " + endpoint + ", launching locally: " + e.getMessage());
+                }
+            }
+        }
+        return spec.browserType(playwright).launch(spec.launchOptions());
+    }
+
+    /** Number of browsers currently kept alive across all workers. */
+    public static int poolSize() {
+        return BROWSERS.size();
+    }
+
+    public static long leaseCount() {
+        return LEASES.get();
+    }
+
+    public static long launchCount() {
+        return LAUNCHES.get();
+    }
+
+    /** Leases served by an already running browser instead of a new launch. */
+    public static long launchesSaved() {
+        return LEASES.get() - LAUNCHES.get();
+    }
+
+    public static double averageLeaseWaitMillis() {
+        long leases = LEASES.get();
+        return leases == 0 ? 0 : LEASE_WAIT_NANOS.get() / 1_000_000.0 / leases;
+    }
+
+    public static double maxLeaseWaitMillis() {
+        return MAX_LEASE_WAIT_NANOS.get() / 1_000_000.0;
+    }
+
+    public static String metricsSummary() {
+        return String.format("poolSize=%d leases=%d launches=%d launchesSaved=%d avgLeaseWaitMs=%.1f maxLeaseWaitMs=%.1f",
+                poolSize(), leaseCount(), launchCount(), launchesSaved(), averageLeaseWaitMillis(), maxLeaseWaitMillis());
+    }
+
+    /** Close every pooled browser and Playwright driver. Safe to call multiple times. */
+    public static synchronized void shutdown() {
+        if (BROWSERS.isEmpty() && PLAYWRIGHTS.isEmpty()) {
+            return;
+        }
+        System.out.println("[BrowserPool] " + metricsSummary());
+        for (Browser browser : BROWSERS.values()) {
+            try {
+                browser.close();
+            } catch (Exception ignored) {
+            }
+        }
+        BROWSERS.clear();
+        for (Playwright playwright : PLAYWRIGHTS.values()) {
+            try {
+                playwright.close();
+            } catch (Exception ignored) {
+            }
+        }
+        PLAYWRIGHTS.clear();
+    }
+
+    private static void registerShutdownHook() {
+        if (HOOK_REGISTERED.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(BrowserPool::shutdown, "browser-pool-shutdown"));
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.playwright;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.gson.Gson;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.impl.driver.Driver;
+
+/**
+ * A browser running in its own Playwright server process, reachable over a
+ * WebSocket endpoint. Any number of Playwright instances, one per thread, can
+ * connect to it with BrowserType.connect(wsEndpoint()) and create their own
+ * contexts, so many threads share a few browser processes without sharing a
+ * Playwright object.
+ * <p>
+ * The server is started with the Playwright CLI,
+ * {@code npx playwright@<version> launch-server}, pinned to the version of
+ * the Playwright Java client on the classpath (currently 1.55.0), because
+ * client and server must match. This needs Node.js on the agent.
+ * -DbrowserServer.launcher=driver uses the CLI bundled in the Java driver
+ * instead, through the internal com.microsoft.playwright.impl.driver API,
+ * which may change with any Playwright upgrade. A server that does not report
+ * its endpoint within -DbrowserServer.startTimeoutSeconds (default 120) is
+ * killed and launch() fails with its last output lines.
+ */
+public final class BrowserServer implements AutoCloseable {
+    /** Version of the Playwright Java client; the CLI is pinned to it. */
+    static final String PLAYWRIGHT_VERSION = playwrightVersion();
+    private static final int OUTPUT_LINES_KEPT = 20;
+
+    private final BrowserSpec spec;
+    private final Process process;
+    private final String wsEndpoint;
+
+    private BrowserServer(BrowserSpec spec, Process process, String wsEndpoint) {
+        this.spec = spec;
+        this.process = process;
+        this.wsEndpoint = wsEndpoint;
+    }
+
+    /** Launch a server for the spec with default settings (random port and path). */
+    public static BrowserServer launch(BrowserSpec spec) throws IOException {
+        return launch(spec, Collections.emptyMap());
+    }
+
+    /**
+     * Launch a server for the spec. Extra launchServer options (e.g. "port",
+     * "wsPath", "args") are passed through to Playwright.
+     */
+    public static BrowserServer launch(BrowserSpec spec, Map<String, Object> extraOptions) throws IOException {
+        Map<String, Object> options = new LinkedHashMap<>();
+        options.put("headless", spec.isHeadless());
+        if (spec.getChannel() != null) {
+            options.put("channel", spec.getChannel());
+        }
+        options.putAll(extraOptions);
+        Path config = Files.createTempFile("browser-server", ".json");
+        Files.writeString(config, new Gson().toJson(options), StandardCharsets.UTF_8);
+
+        ProcessBuilder builder = launcher();
+        builder.command().add("launch-server");
+        builder.command().add("--browser");
+        builder.command().add(spec.getEngine());
+        builder.command().add("--config");
+        builder.command().add(config.toString());
+        builder.redirectErrorStream(true);
+        Process process;
+        try {
+            process = builder.start();
+        } catch (IOException e) {
+            Files.deleteIfExists(config);
+            throw new IOException("Could not start " + String.join(" ", builder.command()) + " (" + e.getMessage()
+                    + "); install Node.js or use -DbrowserServer.launcher=driver", e);
+        }
+
+        // the first ws:// line is the endpoint; keep draining output afterwards so the server never blocks
+        CompletableFuture<String> endpoint = new CompletableFuture<>();
+        Deque<String> lastLines = new ArrayDeque<>();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (!endpoint.isDone() && line.startsWith("ws://")) {
+                        endpoint.complete(line.trim());
+                    } else if (!line.isBlank()) {
+                        System.out.println("[BrowserServer] " + line);
+                        synchronized (lastLines) {
+                            lastLines.addLast(line);
+                            if (lastLines.size() > OUTPUT_LINES_KEPT) {
+                                lastLines.removeFirst();
+                            }
+                        }
+                    }
+                }
+            } catch (IOException ignored) {
+            }
+            endpoint.completeExceptionally(new IOException("browser server exited with code " + exitCode(process)));
+        }, "browser-server-output");
+        reader.setDaemon(true);
+        reader.start();
+
+        long timeoutSeconds = Long.getLong("browserServer.startTimeoutSeconds", 120);
+        try {
+            String ws = endpoint.get(timeoutSeconds, TimeUnit.SECONDS);
+            System.out.println("[BrowserServer] " + spec.key() + " listening on " + ws + " (pid " + process.pid() + ")");
+            return new BrowserServer(spec, process, ws);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            destroy(process);
+            throw new IOException("Interrupted while starting browser server", e);
+        } catch (ExecutionException | TimeoutException e) {
+            destroy(process);
+            String reason = e instanceof TimeoutException ? "no ws:// endpoint within " + timeoutSeconds + " s" : e.getCause().getMessage();
+            String output;
+            synchronized (lastLines) {
+                output = lastLines.isEmpty() ? "no output" : "last output:\n" + String.join("\n", lastLines);
+            }
+            throw new IOException("Browser server for " + spec.key() + " did not start (" + reason + "), " + output, e);
+        } finally {
+            Files.deleteIfExists(config);
+        }
+    }
+
+    /** Process running the Playwright CLI, per -DbrowserServer.launcher=(npx|driver). */
+    private static ProcessBuilder launcher() {
+        if ("driver".equalsIgnoreCase(System.getProperty("browserServer.launcher", "npx").trim())) {
+            // internal API of playwright-java; may need changes on a Playwright upgrade
+            return Driver.ensureDriverInstalled(Collections.emptyMap(), true).createProcessBuilder();
+        }
+        String npx = System.getProperty("os.name", "").toLowerCase().startsWith("windows") ? "npx.cmd" : "npx";
+        return new ProcessBuilder(new ArrayList<>(List.of(npx, "--yes", "playwright@" + PLAYWRIGHT_VERSION)));
+    }
+
+    private static String playwrightVersion() {
+        String version = Playwright.class.getPackage().getImplementationVersion();
+        // matches the playwright dependency in pom.xml, for classpaths without a jar manifest
+        return version != null ? version : "1.55.0";
+    }
+
+    public BrowserSpec spec() {
+        return spec;
+    }
+
+    public String wsEndpoint() {
+        return wsEndpoint;
+    }
+
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    /** The server process; browser processes are its descendants. */
+    public ProcessHandle processHandle() {
+        return process.toHandle();
+    }
+
+    @Override
+    public void close() {
+        destroy(process);
+    }
+
+    private static void destroy(Process process) {
+        process.descendants().forEach(ProcessHandle::destroy);
+        process.destroy();
+        try {
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String exitCode(Process process) {
+        try {
+            return process.waitFor(1, TimeUnit.SECONDS) ? Integer.toString(process.exitValue()) : "unknown";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+}
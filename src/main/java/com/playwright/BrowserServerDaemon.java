@@ -0,0 +1,353 @@
+package com.playwright;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Long-running local browser server shared by test JVMs on the same machine,
+ * so repeated runs skip the browser launch. Each client JVM still starts its
+ * own Playwright driver to connect. Clients connect with
+ * -DbrowserServer=ws://127.0.0.1:9323/playwright (see BrowserPool).
+ * <p>
+ * The daemon listens on a fixed localhost port and forwards each connection
+ * (one client session) to a backend BrowserServer. Backends are launched
+ * with the same wsPath, so the WebSocket handshake is passed through as is.
+ * A backend is retired after -Ddaemon.maxSessions sessions (default 50),
+ * when its process tree uses more than -Ddaemon.maxMemoryMB (default 2048,
+ * read from /proc, Linux only) or when its health check fails. New sessions
+ * then go to a fresh backend. Replacements are launched in the background;
+ * until one is ready, new sessions keep going to the retiring backend. A
+ * retired backend is closed once its last session ends.
+ * <p>
+ * Options: -Ddaemon.port=9323, -Ddaemon.healthIntervalSeconds=10, and
+ * -Dbrowser / -Dheadless for the browser it serves (one engine per daemon).
+ * Start it with {@code mvn exec:java -Dexec.mainClass=com.playwright.BrowserServerDaemon -Dheadless=true}
+ * and stop it with Ctrl+C or by killing the process.
+ */
+public final class BrowserServerDaemon {
+    /** Path every backend listens on; part of the endpoint clients connect to. */
+    static final String WS_PATH = "/playwright";
+
+    private final BrowserSpec spec;
+    private final int port = Integer.getInteger("daemon.port", 9323);
+    private final int maxSessions = Integer.getInteger("daemon.maxSessions", 50);
+    private final long maxMemoryBytes = Long.getLong("daemon.maxMemoryMB", 2048) * 1024 * 1024;
+    private final long healthIntervalSeconds = Long.getLong("daemon.healthIntervalSeconds", 10);
+
+    private final List<Backend> backends = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService health = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "browser-daemon-health");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicLong sessions = new AtomicLong();
+    private final AtomicLong recycles = new AtomicLong();
+    // held only while launching, never while routing sessions
+    private final Object launchLock = new Object();
+    private final AtomicBoolean replacing = new AtomicBoolean();
+    private volatile Backend current;
+    private volatile boolean stopped;
+
+    private static final class Backend {
+        final BrowserServer server;
+        final String host;
+        final int port;
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger served = new AtomicInteger();
+        volatile String retiredBecause;
+        boolean closed;
+
+        Backend(BrowserServer server) {
+            this.server = server;
+            URI endpoint = URI.create(server.wsEndpoint());
+            this.host = endpoint.getHost();
+            this.port = endpoint.getPort();
+        }
+
+        /** Count a new session unless the backend was already closed. */
+        synchronized boolean join() {
+            if (closed) {
+                return false;
+            }
+            active.incrementAndGet();
+            return true;
+        }
+
+        /** Mark the backend closed if it has no sessions (or died); true if the caller should close it. */
+        synchronized boolean closeIfIdle() {
+            if (closed || (active.get() > 0 && server.isAlive())) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+    }
+
+    BrowserServerDaemon(BrowserSpec spec) {
+        this.spec = spec;
+    }
+
+    public static void main(String[] args) throws IOException {
+        BrowserSpec spec = BrowserSpec.fromSystemProperties(System.getProperty("platformName", "linux"));
+        BrowserServerDaemon daemon = new BrowserServerDaemon(spec);
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::stop, "browser-daemon-shutdown"));
+        daemon.serve();
+    }
+
+    /** Endpoint to pass to clients as -DbrowserServer. */
+    public String endpoint() {
+        return "ws://127.0.0.1:" + port + WS_PATH;
+    }
+
+    void serve() throws IOException {
+        try (ServerSocket listener = new ServerSocket()) {
+            listener.setReuseAddress(true);
+            listener.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            // the first backend is started up front so the first client does not pay for it
+            liveBackend();
+            health.scheduleWithFixedDelay(this::checkHealth, healthIntervalSeconds, healthIntervalSeconds, TimeUnit.SECONDS);
+            System.out.println("[BrowserServerDaemon] Serving " + spec.key() + " on " + endpoint()
+                    + " (recycle after " + maxSessions + " sessions or " + maxMemoryBytes / 1024 / 1024 + " MB)");
+            while (!stopped) {
+                Socket client = listener.accept();
+                Thread session = new Thread(() -> proxy(client), "browser-daemon-session");
+                session.setDaemon(true);
+                session.start();
+            }
+        }
+    }
+
+    /**
+     * The backend new sessions go to. A retired backend that is still alive
+     * keeps taking sessions while its replacement launches in the background;
+     * only when there is no live backend at all does the caller wait for a
+     * launch.
+     */
+    private Backend liveBackend() throws IOException {
+        Backend backend = current;
+        if (backend != null && backend.server.isAlive()) {
+            if (backend.retiredBecause != null) {
+                startReplacement();
+            }
+            return backend;
+        }
+        synchronized (launchLock) {
+            backend = current;
+            if (backend == null || !backend.server.isAlive()) {
+                launchAndPublish();
+            }
+            return current;
+        }
+    }
+
+    /** The backend for a new session; the returned backend already counts the session. */
+    private Backend acquire() throws IOException {
+        Backend backend;
+        do {
+            backend = liveBackend();
+        } while (!backend.join());
+        if (backend.served.incrementAndGet() >= maxSessions) {
+            // keeps serving until the replacement is published, then closes when its sessions end
+            retire(backend, "served " + maxSessions + " sessions");
+        }
+        return backend;
+    }
+
+    /** Launch a replacement on the health thread unless one is already starting. */
+    private void startReplacement() {
+        if (stopped || !replacing.compareAndSet(false, true)) {
+            return;
+        }
+        health.execute(() -> {
+            try {
+                synchronized (launchLock) {
+                    Backend backend = current;
+                    if (backend == null || !backend.server.isAlive() || backend.retiredBecause != null) {
+                        launchAndPublish();
+                    }
+                }
+            } catch (IOException e) {
+                System.out.println("[BrowserServerDaemon] Could not start backend: " + e.getMessage());
+            } finally {
+                replacing.set(false);
+            }
+        });
+    }
+
+    /** Launch a backend and make it the current one; called with launchLock held. */
+    private void launchAndPublish() throws IOException {
+        long start = System.nanoTime();
+        Backend fresh = new Backend(BrowserServer.launch(spec, Map.of("wsPath", WS_PATH)));
+        backends.add(fresh);
+        Backend previous = current;
+        current = fresh;
+        System.out.println("[BrowserServerDaemon] Backend pid " + fresh.server.processHandle().pid() + " ready in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        if (previous != null) {
+            // a retired backend keeps its reason; otherwise it was replaced because it died
+            retire(previous, previous.server.isAlive() ? "replaced" : "process exited");
+        }
+    }
+
+    private void proxy(Socket client) {
+        Backend backend = null;
+        try (Socket in = client) {
+            backend = acquire();
+            sessions.incrementAndGet();
+            try (Socket out = new Socket(backend.host, backend.port)) {
+                in.setTcpNoDelay(true);
+                out.setTcpNoDelay(true);
+                Thread upstream = new Thread(() -> pump(in, out), "browser-daemon-upstream");
+                upstream.setDaemon(true);
+                upstream.start();
+                pump(out, in);
+                upstream.join();
+            }
+        } catch (IOException e) {
+            System.out.println("[BrowserServerDaemon] Session failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (backend != null && backend.active.decrementAndGet() == 0 && backend.retiredBecause != null) {
+                closeIfDrained(backend);
+            }
+        }
+    }
+
+    /** Copy bytes until either side closes, then close both so the other pump ends too. */
+    private static void pump(Socket from, Socket to) {
+        byte[] buffer = new byte[64 * 1024];
+        try {
+            InputStream in = from.getInputStream();
+            OutputStream out = to.getOutputStream();
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        } catch (IOException ignored) {
+        } finally {
+            closeQuietly(from);
+            closeQuietly(to);
+        }
+    }
+
+    private void checkHealth() {
+        for (Backend backend : backends) {
+            if (backend.retiredBecause != null) {
+                closeIfDrained(backend);
+                continue;
+            }
+            if (!backend.server.isAlive() || !accepts(backend.host, backend.port)) {
+                retire(backend, "health check failed");
+                continue;
+            }
+            long rss = residentBytes(backend.server.processHandle());
+            if (rss > maxMemoryBytes) {
+                retire(backend, "using " + rss / 1024 / 1024 + " MB");
+            }
+        }
+    }
+
+    /** Stop routing to a backend once a replacement is up; it closes when its last session ends. */
+    private void retire(Backend backend, String reason) {
+        boolean first;
+        synchronized (backend) {
+            first = backend.retiredBecause == null;
+            if (first) {
+                backend.retiredBecause = reason;
+            }
+        }
+        if (first) {
+            recycles.incrementAndGet();
+            System.out.println("[BrowserServerDaemon] Retiring backend pid " + backend.server.processHandle().pid() + ": " + reason
+                    + " (" + backend.active.get() + " active sessions)");
+            if (backend == current) {
+                startReplacement();
+            }
+        }
+        closeIfDrained(backend);
+    }
+
+    private void closeIfDrained(Backend backend) {
+        // the current backend keeps serving until its replacement is published
+        if (backend != current && backend.closeIfIdle() && backends.remove(backend)) {
+            backend.server.close();
+        }
+    }
+
+    private static boolean accepts(String host, int port) {
+        try (Socket probe = new Socket()) {
+            probe.connect(new InetSocketAddress(host, port), 2000);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** Resident memory of the process and its descendants from /proc/<pid>/status, or -1 where /proc is missing. */
+    static long residentBytes(ProcessHandle process) {
+        List<ProcessHandle> tree = new ArrayList<>();
+        tree.add(process);
+        process.descendants().forEach(tree::add);
+        long total = 0;
+        for (ProcessHandle handle : tree) {
+            Path status = Paths.get("/proc", Long.toString(handle.pid()), "status");
+            try {
+                for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+                    if (line.startsWith("VmRSS:")) {
+                        total += Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                if (handle == process) {
+                    return -1;
+                }
+            }
+        }
+        return total;
+    }
+
+    /** Close every backend. */
+    void stop() {
+        synchronized (launchLock) {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+        }
+        health.shutdownNow();
+        System.out.println("[BrowserServerDaemon] Served " + sessions.get() + " sessions, recycled " + recycles.get() + " backends");
+        for (Backend backend : backends) {
+            backend.server.close();
+        }
+        backends.clear();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.playwright;
+
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+
+/**
+ * Describes which browser to launch: Playwright engine, optional channel and
+ * headless flag. Two equal specs share the same pooled browser.
+ */
+public final class BrowserSpec {
+    private final String engine;
+    private final String channel;
+    private final boolean headless;
+
+    public BrowserSpec(String engine, String channel, boolean headless) {
+        this.engine = engine;
+        this.channel = channel;
+        this.headless = headless;
+    }
+
+    /**
+     * Resolve the spec from -Dbrowser=(chrome|edge|chromium|firefox|webkit) and
+     * -Dheadless, falling back to the platform mapping when no browser is set.
+     */
+    public static BrowserSpec fromSystemProperties(String platformName) {
+        String browserProp = System.getProperty("browser", "").trim().toLowerCase();
+        boolean headless = System.getProperty("headless", "false").trim().equalsIgnoreCase("true");
+
+        switch (browserProp) {
+            case "edge":
+                // Edge is Chromium-based, use chromium with msedge channel
+                return new BrowserSpec("chromium", "msedge", headless);
+            case "chrome":
+                return new BrowserSpec("chromium", "chrome", headless);
+            case "chromium":
+                // no channel, use bundled/system chromium
+                return new BrowserSpec("chromium", null, headless);
+            case "firefox":
+                return new BrowserSpec("firefox", null, headless);
+            case "webkit":
+                return new BrowserSpec("webkit", null, headless);
+            default:
+                // unknown or empty value - choose by platform
+                break;
+        }
+
+        if (platformName.equalsIgnoreCase("windows10")) {
+            return new BrowserSpec("chromium", "msedge", headless);  // Use Edge on Windows 10
+        } else if (platformName.equalsIgnoreCase("windows11")) {
+            return new BrowserSpec("chromium", "chrome", headless);  // Use Chrome on Windows 11
+        }
+        return new BrowserSpec("chromium", null, headless);
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /** Returns the BrowserType matching this spec's engine. */
+    public BrowserType browserType(Playwright playwright) {
+        switch (engine) {
+            case "firefox":
+                return playwright.firefox();
+            case "webkit":
+                return playwright.webkit();
+            default:
+                return playwright.chromium();
+        }
+    }
+
+    public BrowserType.LaunchOptions launchOptions() {
+        BrowserType.LaunchOptions options = new BrowserType.LaunchOptions().setHeadless(headless);
+        if (channel != null) {
+            options.setChannel(channel);
+        }
+        return options;
+    }
+
+    /** Stable key used by the pool, e.g. "chromium/msedge/headed". */
+    public String key() {
+        return engine + "/" + (channel == null ? "bundled" : channel) + "/" + (headless ? "headless" : "headed");
+    }
+
+    @Override
+    public String toString() {
+        return key();
+    }
+}
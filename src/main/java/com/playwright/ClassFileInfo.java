@@ -0,0 +1,157 @@
+package com.playwright;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal reader for compiled .class files. It only parses the constant pool
+ * and the class header, which is enough to tell which annotations and other
+ * classes a class uses without loading it through a ClassLoader.
+ */
+public final class ClassFileInfo {
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    private static final Pattern DESCRIPTOR_TYPE = Pattern.compile("L([\\w/$]+)[;<]");
+
+    private final String className;
+    private final String superName;
+    private final int accessFlags;
+    private final List<String> utf8Constants;
+    private final Set<String> referencedClasses;
+
+    private ClassFileInfo(String className, String superName, int accessFlags, List<String> utf8Constants,
+            Set<String> referencedClasses) {
+        this.className = className;
+        this.superName = superName;
+        this.accessFlags = accessFlags;
+        this.utf8Constants = utf8Constants;
+        this.referencedClasses = referencedClasses;
+    }
+
+    public static ClassFileInfo read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != 0xCAFEBABE) {
+            throw new IOException("Not a class file");
+        }
+        in.readUnsignedShort(); // minor version
+        in.readUnsignedShort(); // major version
+
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classNameIndex = new int[count];
+        boolean[] stringLiteral = new boolean[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    utf8[i] = in.readUTF();
+                    break;
+                case 7: // Class
+                    classNameIndex[i] = in.readUnsignedShort();
+                    break;
+                case 8: // String
+                    stringLiteral[in.readUnsignedShort()] = true;
+                    break;
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    in.skipBytes(2);
+                    break;
+                case 15: // MethodHandle
+                    in.skipBytes(3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    in.skipBytes(4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    in.skipBytes(8);
+                    i++; // eight-byte constants take two slots
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        int accessFlags = in.readUnsignedShort();
+        int thisClass = in.readUnsignedShort();
+        int superClass = in.readUnsignedShort();
+
+        List<String> constants = new ArrayList<>();
+        for (int i = 1; i < count; i++) {
+            // string literals are data, not type references
+            if (utf8[i] != null && !stringLiteral[i]) {
+                constants.add(utf8[i]);
+            }
+        }
+        String className = utf8[classNameIndex[thisClass]].replace('/', '.');
+        String superName = superClass == 0 ? null : utf8[classNameIndex[superClass]].replace('/', '.');
+
+        // class constants plus types that only appear in field/method descriptors and signatures
+        Set<String> referenced = new TreeSet<>();
+        for (int i = 1; i < count; i++) {
+            if (classNameIndex[i] != 0) {
+                String name = utf8[classNameIndex[i]];
+                if (name.startsWith("[")) {
+                    collectDescriptorTypes(name, referenced);
+                } else {
+                    referenced.add(name.replace('/', '.'));
+                }
+            }
+        }
+        for (String constant : constants) {
+            collectDescriptorTypes(constant, referenced);
+        }
+        referenced.remove(className);
+        return new ClassFileInfo(className, superName, accessFlags, constants, referenced);
+    }
+
+    /** Fully qualified binary name, e.g. "playwrightTrianing.ActionsTest". */
+    public String getClassName() {
+        return className;
+    }
+
+    /** Fully qualified super class name, or null for java.lang.Object. */
+    public String getSuperName() {
+        return superName;
+    }
+
+    public boolean isConcrete() {
+        return (accessFlags & (ACC_INTERFACE | ACC_ABSTRACT)) == 0;
+    }
+
+    /**
+     * True when the class file references the given type descriptor, e.g.
+     * "Lorg/testng/annotations/Test;" for classes or methods annotated with
+     * TestNG's @Test.
+     */
+    public boolean usesDescriptor(String descriptor) {
+        return utf8Constants.contains(descriptor);
+    }
+
+    /** Binary names of all other classes this class file refers to. */
+    public Set<String> getReferencedClasses() {
+        return referencedClasses;
+    }
+
+    private static void collectDescriptorTypes(String value, Set<String> out) {
+        Matcher m = DESCRIPTOR_TYPE.matcher(value);
+        while (m.find()) {
+            out.add(m.group(1).replace('/', '.'));
+        }
+    }
+}
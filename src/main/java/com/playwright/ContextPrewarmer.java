@@ -0,0 +1,165 @@
+package com.playwright;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+
+/**
+ * Double-buffered context creation for BaseSetup (-Dprewarm=true). Each
+ * worker thread gets two lanes, each with its own Playwright driver and
+ * browser. While a test runs on one lane, a background thread builds the
+ * next test's BrowserContext and Page on the other, and init() only has to
+ * take it. A lane is only ever used by one thread at a time (the hand-over
+ * goes through a future), which is the synchronization Playwright requires
+ * for using its objects from more than one thread.
+ * <p>
+ * The pre-built context uses the generic options of the previous init()
+ * (viewport, user agent, video); per-test routing, HAR and tracing are still
+ * applied by BaseSetup after the hand-over. A recorded video therefore also
+ * contains the short idle time before the test starts.
+ */
+public final class ContextPrewarmer {
+    private static final Map<Long, Worker> WORKERS = new ConcurrentHashMap<>();
+    private static final ExecutorService BUILDER = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "context-prewarm");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong WAIT_NANOS = new AtomicLong();
+
+    private ContextPrewarmer() {
+    }
+
+    public static boolean enabled() {
+        return Boolean.getBoolean("prewarm");
+    }
+
+    /** A built context and page together with the browser they belong to. */
+    public record Prepared(Browser browser, BrowserContext context, Page page) {
+    }
+
+    private static final class Lane {
+        Playwright playwright;
+        Browser browser;
+        String specKey;
+    }
+
+    private static final class Worker {
+        final Lane[] lanes = {new Lane(), new Lane()};
+        int next;
+        String specKey;
+        CompletableFuture<Prepared> pending;
+    }
+
+    /**
+     * Hand over the pre-built context for the current worker, or build one
+     * now on the first call, and start building the following one.
+     */
+    public static Prepared take(BrowserSpec spec, Browser.NewContextOptions options) {
+        long start = System.nanoTime();
+        Worker worker = WORKERS.computeIfAbsent(Thread.currentThread().threadId(), id -> new Worker());
+        Prepared prepared = null;
+        if (worker.pending != null && spec.key().equals(worker.specKey)) {
+            try {
+                prepared = worker.pending.join();
+                HITS.incrementAndGet();
+            } catch (Exception e) {
+                System.out.println("[ContextPrewarmer] Pre-built context failed, building inline: " + e.getMessage());
+            }
+        } else if (worker.pending != null) {
+            // the browser changed; drop what was built for the old one, and its browser
+            discard(worker.pending);
+            closeBrowser(worker.lanes[worker.next]);
+        }
+        if (prepared == null) {
+            MISSES.incrementAndGet();
+            prepared = build(worker.lanes[worker.next], spec, options);
+        }
+        // the lane just handed over is busy until the next take(); build on the other one
+        int busy = laneOf(worker, prepared);
+        worker.next = 1 - busy;
+        Lane idle = worker.lanes[worker.next];
+        worker.specKey = spec.key();
+        worker.pending = CompletableFuture.supplyAsync(() -> build(idle, spec, options), BUILDER);
+        WAIT_NANOS.addAndGet(System.nanoTime() - start);
+        return prepared;
+    }
+
+    private static int laneOf(Worker worker, Prepared prepared) {
+        return worker.lanes[0].browser == prepared.browser() ? 0 : 1;
+    }
+
+    private static Prepared build(Lane lane, BrowserSpec spec, Browser.NewContextOptions options) {
+        if (lane.browser != null && !spec.key().equals(lane.specKey)) {
+            // launched for another spec; the driver is kept, the browser is replaced
+            closeBrowser(lane);
+        }
+        if (lane.browser == null || !lane.browser.isConnected()) {
+            if (lane.playwright == null) {
+                lane.playwright = Playwright.create();
+            }
+            lane.browser = BrowserPool.open(lane.playwright, spec);
+            lane.specKey = spec.key();
+        }
+        BrowserContext context = lane.browser.newContext(options);
+        return new Prepared(lane.browser, context, context.newPage());
+    }
+
+    private static void closeBrowser(Lane lane) {
+        try {
+            if (lane.browser != null) {
+                lane.browser.close();
+            }
+        } catch (Exception ignored) {
+        }
+        lane.browser = null;
+        lane.specKey = null;
+    }
+
+    private static void discard(CompletableFuture<Prepared> pending) {
+        try {
+            pending.get(30, TimeUnit.SECONDS).context().close();
+        } catch (Exception ignored) {
+        }
+    }
+
+    /** Contexts handed over without having to wait for a build, and those built inline. */
+    public static String metricsSummary() {
+        long takes = HITS.get() + MISSES.get();
+        if (takes == 0) {
+            return "";
+        }
+        return String.format("prewarmed %d of %d contexts, average take %.1f ms%n", HITS.get(), takes,
+                WAIT_NANOS.get() / 1e6 / takes);
+    }
+
+    /** Close unused pre-built contexts, then every lane's browser and driver. */
+    public static void shutdown() {
+        for (Worker worker : WORKERS.values()) {
+            if (worker.pending != null) {
+                discard(worker.pending);
+            }
+            for (Lane lane : worker.lanes) {
+                closeBrowser(lane);
+                try {
+                    if (lane.playwright != null) {
+                        lane.playwright.close();
+                    }
+                } catch (Exception ignored) {
+                }
+            }
+        }
+        WORKERS.clear();
+    }
+}
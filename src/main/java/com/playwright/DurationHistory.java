@@ -0,0 +1,162 @@
+package com.playwright;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-class and per-method durations from previous runs, stored as a
+ * properties file under target/test-history (override with
+ * -Dtest.history.dir). New samples are blended into the stored value with an
+ * exponential moving average so one slow run does not dominate the schedule.
+ * Samples of this run are merged into the file under a lock, so JVMs sharing
+ * the directory keep each other's entries.
+ */
+public final class DurationHistory {
+    private static final double SMOOTHING = 0.5;
+    private static final long DEFAULT_CLASS_MILLIS = 30_000;
+
+    private final Path file;
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+    // samples of this run in recording order, replayed onto the file's values in save()
+    private final Map<String, List<Long>> samples = new ConcurrentHashMap<>();
+    private volatile Long medianClassMillis;
+
+    private DurationHistory(Path file) {
+        this.file = file;
+    }
+
+    public static Path historyDir() {
+        return Paths.get(System.getProperty("test.history.dir", Paths.get("target", "test-history").toString()));
+    }
+
+    public static DurationHistory load() {
+        return load(historyDir().resolve("durations.properties"));
+    }
+
+    static DurationHistory load(Path file) {
+        DurationHistory history = new DurationHistory(file);
+        history.durations.putAll(read(file));
+        return history;
+    }
+
+    /**
+     * Expected duration of a test class. Unknown classes get the median of the
+     * known classes so new tests are neither scheduled first nor last.
+     */
+    public long expectedClassMillis(String className) {
+        Long known = durations.get("class." + className);
+        return known != null ? known : medianClassMillis();
+    }
+
+    /** Whether every class has a recorded duration. */
+    public boolean knowsAll(List<String> classNames) {
+        for (String className : classNames) {
+            if (!durations.containsKey("class." + className)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // computed once and reset when a class is recorded, as it is a sort key for every unknown class
+    private long medianClassMillis() {
+        Long median = medianClassMillis;
+        if (median == null) {
+            List<Long> classes = new ArrayList<>();
+            durations.forEach((key, value) -> {
+                if (key.startsWith("class.")) {
+                    classes.add(value);
+                }
+            });
+            Collections.sort(classes);
+            median = classes.isEmpty() ? DEFAULT_CLASS_MILLIS : classes.get(classes.size() / 2);
+            medianClassMillis = median;
+        }
+        return median;
+    }
+
+    public void recordClass(String className, long millis) {
+        record("class." + className, millis);
+    }
+
+    public void recordMethod(String className, String methodName, long millis) {
+        record("method." + className + "#" + methodName, millis);
+    }
+
+    private void record(String key, long millis) {
+        durations.merge(key, millis, DurationHistory::blend);
+        samples.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(millis);
+        if (key.startsWith("class.")) {
+            medianClassMillis = null;
+        }
+    }
+
+    private static long blend(long old, long sample) {
+        return Math.round(old * (1 - SMOOTHING) + sample * SMOOTHING);
+    }
+
+    /** Replay this run's samples onto the file as it is now, re-reading it under a lock first. */
+    public synchronized void save() throws IOException {
+        if (samples.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(file.getParent());
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                Map<String, Long> current = new TreeMap<>(read(file));
+                samples.forEach((key, values) -> {
+                    synchronized (values) {
+                        values.forEach(sample -> current.merge(key, sample, DurationHistory::blend));
+                    }
+                });
+                Properties props = new Properties();
+                current.forEach((key, value) -> props.setProperty(key, Long.toString(value)));
+                Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    props.store(out, "Test durations in milliseconds (exponential moving average)");
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+                durations.clear();
+                durations.putAll(current);
+                samples.clear();
+                medianClassMillis = null;
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private static Map<String, Long> read(Path file) {
+        Map<String, Long> values = new TreeMap<>();
+        if (Files.isRegularFile(file)) {
+            Properties props = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                props.load(in);
+                for (String key : props.stringPropertyNames()) {
+                    values.put(key, Long.parseLong(props.getProperty(key)));
+                }
+            } catch (IOException | NumberFormatException e) {
+                System.out.println("[DurationHistory] Ignoring unreadable history " + file + ": " + e.getMessage());
+                values.clear();
+            }
+        }
+        return values;
+    }
+}
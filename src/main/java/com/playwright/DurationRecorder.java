@@ -0,0 +1,52 @@
+package com.playwright;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * TestNG listener that feeds method and class durations of the current run
+ * into DurationHistory and saves it when the suite finishes. A class duration
+ * is the sum of its method durations in this run.
+ */
+public class DurationRecorder implements ITestListener, ISuiteListener {
+    private final DurationHistory history;
+    private final Map<String, Long> classTotals = new ConcurrentHashMap<>();
+
+    public DurationRecorder(DurationHistory history) {
+        this.history = history;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    private void record(ITestResult result) {
+        String className = result.getTestClass().getName();
+        long millis = result.getEndMillis() - result.getStartMillis();
+        history.recordMethod(className, result.getMethod().getMethodName(), millis);
+        classTotals.merge(className, millis, Long::sum);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        classTotals.forEach(history::recordClass);
+        classTotals.clear();
+        try {
+            history.save();
+        } catch (IOException e) {
+            System.out.println("[DurationRecorder] Could not save duration history: " + e.getMessage());
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package com.playwright;
 
-import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -11,59 +12,152 @@ import org.testng.xml.XmlSuite;
 import org.testng.xml.XmlTest;
 
 /**
- * Programmatically creates a TestNG suite containing all test classes from test/java
- * directory and runs them. This allows running TestNG from a plain Java main method.
+ * Programmatically creates a TestNG suite containing all TestNG test classes found
+ * in the compiled classpath directories (see TestClassIndex) and runs them. This
+ * allows running TestNG from a plain Java main method.
+ * Parallel execution is controlled with -Dparallel=(none|methods|classes|tests) and
+ * -DthreadCount (defaults to the number of available processors); in "tests" mode
+ * every class gets its own XmlTest.
+ * <p>
+ * Classes are scheduled slowest first using DurationHistory, which is updated
+ * after every run. -Dshard=i/N runs only the i-th of N shards; shards are
+ * split by class name so every CI node computes the same split (see
+ * ShardPlanner.shards).
+ * <p>
+ * -Dforks=N splits the classes into N duration-balanced groups and runs each
+ * in its own child JVM (see ForkedRunner), so throughput scales with cores
+ * even when one Playwright driver per JVM is the bottleneck.
+ * <p>
+ * -Dimpact=true runs only the test classes affected by class changes since
+ * the last fully passing run (see ImpactAnalyzer); -Dimpact.full=true runs
+ * everything but still records a new baseline.
  */
 public class DynamicTestNGRunner {
 
-    private static List<String> findTestClasses(File directory, String packageName) {
-        List<String> testClasses = new ArrayList<>();
-        File[] files = directory.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    String newPackage = packageName.isEmpty() ? file.getName() 
-                                                            : packageName + "." + file.getName();
-                    testClasses.addAll(findTestClasses(file, newPackage));
-                } else if (file.getName().endsWith(".java")) {
-                    String className = file.getName().substring(0, file.getName().length() - 5);
-                    testClasses.add(packageName + "." + className);
-                }
-            }
-        }
-        return testClasses;
-    }
+    public static void main(String[] args) throws IOException {
+        String parallel = System.getProperty("parallel", "none").trim().toLowerCase();
+        int threadCount = Integer.getInteger("threadCount", Runtime.getRuntime().availableProcessors());
 
-    public static void main(String[] args) {
         // Create a suite
         XmlSuite suite = new XmlSuite();
         suite.setName("DynamicSuite");
         suite.setVerbose(1);
+        switch (parallel) {
+            case "methods":
+                suite.setParallel(XmlSuite.ParallelMode.METHODS);
+                break;
+            case "classes":
+                suite.setParallel(XmlSuite.ParallelMode.CLASSES);
+                break;
+            case "tests":
+                suite.setParallel(XmlSuite.ParallelMode.TESTS);
+                break;
+            default:
+                suite.setParallel(XmlSuite.ParallelMode.NONE);
+        }
+        suite.setThreadCount(threadCount);
+
+        String forkedClasses = System.getProperty("runner.classes");
+        int fork = Integer.getInteger("runner.fork", 0);
+        DurationHistory history = DurationHistory.load();
+        List<String> testClassNames;
+        // set when this run should record the impact baseline if everything passes
+        ImpactAnalyzer baselineOnSuccess = null;
+        if (forkedClasses != null) {
+            // child JVM started by ForkedRunner: run exactly the classes it was given
+            testClassNames = new ArrayList<>(Arrays.asList(forkedClasses.split(",")));
+            suite.setName(suite.getName() + "-fork" + fork);
+        } else {
+            // Find all compiled TestNG test classes on the classpath
+            long indexStart = System.currentTimeMillis();
+            TestClassIndex index = TestClassIndex.load();
+            testClassNames = index.testClasses();
+            System.out.println("[DynamicTestNGRunner] Indexed " + index.size() + " classes (" + index.parsedCount()
+                    + " parsed) in " + (System.currentTimeMillis() - indexStart) + " ms");
 
-        // Create a test
-        XmlTest test = new XmlTest(suite);
-        test.setName("DynamicTest");
+            // Keep only test classes affected by changes since the last passing run
+            int[] shard = ShardPlanner.parseShard(System.getProperty("shard"));
+            if (Boolean.getBoolean("impact")) {
+                ImpactAnalyzer impact = ImpactAnalyzer.scan();
+                if (!Boolean.getBoolean("impact.full")) {
+                    testClassNames = impact.affected(testClassNames);
+                }
+                // a shard only sees its own results, so only unsharded runs move the baseline
+                baselineOnSuccess = shard == null ? impact : null;
+                if (testClassNames.isEmpty()) {
+                    System.out.println("[DynamicTestNGRunner] No test classes affected by changes, nothing to run");
+                    if (baselineOnSuccess != null) {
+                        baselineOnSuccess.saveBaseline();
+                    }
+                    return;
+                }
+            }
+
+            // Keep only this node's shard, if any, then schedule slowest classes first
+            if (shard != null) {
+                List<List<String>> shards = ShardPlanner.shards(testClassNames, history, shard[1]);
+                for (int i = 0; i < shards.size(); i++) {
+                    System.out.println("[DynamicTestNGRunner] Shard " + (i + 1) + "/" + shard[1] + ": "
+                            + shards.get(i).size() + " classes, expected " + ShardPlanner.expectedMillis(shards.get(i), history) + " ms");
+                }
+                testClassNames = shards.get(shard[0]);
+                suite.setName(suite.getName() + "-shard" + (shard[0] + 1) + "of" + shard[1]);
+            }
+            testClassNames = ShardPlanner.longestFirst(testClassNames, history);
+
+            // run duration-balanced groups in child JVMs instead of in this one
+            int forks = Integer.getInteger("forks", 1);
+            if (forks > 1) {
+                boolean passed = new ForkedRunner(history).run(ShardPlanner.partition(testClassNames, history, forks));
+                if (passed && baselineOnSuccess != null) {
+                    baselineOnSuccess.saveBaseline();
+                }
+                return;
+            }
+        }
 
-        // Find all test classes in test/java directory
-        File testDir = new File("test/java");
-        List<String> testClassNames = findTestClasses(testDir, "");
-        
         // Add all test classes to the suite
         List<XmlClass> classes = new ArrayList<>();
         for (String className : testClassNames) {
-            // Remove leading dot if present
-            if (className.startsWith(".")) {
-                className = className.substring(1);
-            }
             System.out.println("[DynamicTestNGRunner] Adding test class: " + className);
             classes.add(new XmlClass(className));
         }
-        test.setXmlClasses(classes);
+
+        if (suite.getParallel() == XmlSuite.ParallelMode.TESTS) {
+            // one <test> per class so TestNG can hand each to its own worker
+            for (XmlClass xmlClass : classes) {
+                XmlTest test = new XmlTest(suite);
+                test.setName(xmlClass.getName());
+                test.setXmlClasses(new ArrayList<>(Collections.singletonList(xmlClass)));
+            }
+        } else {
+            // Create a test
+            XmlTest test = new XmlTest(suite);
+            test.setName("DynamicTest");
+            test.setPreserveOrder(true);
+            test.setXmlClasses(classes);
+        }
 
         // Create TestNG and run
         TestNG testng = new TestNG();
         testng.setXmlSuites(Collections.singletonList(suite));
-        System.out.println("[DynamicTestNGRunner] Running TestNG suite: " + suite.getName());
+        testng.addListener(new FlakyTestListener());
+        if (forkedClasses != null) {
+            // the parent records durations from the streamed results
+            testng.addListener(new ForkResultStreamer(fork, Integer.getInteger("runner.resultPort")));
+            testng.setOutputDirectory(System.getProperty("runner.outputDir"));
+        } else {
+            testng.addListener(new DurationRecorder(history));
+        }
+        System.out.println("[DynamicTestNGRunner] Running TestNG suite: " + suite.getName()
+                + " (parallel=" + suite.getParallel() + ", threadCount=" + threadCount + ")");
         testng.run();
+        if (testng.getStatus() == 0 && baselineOnSuccess != null) {
+            baselineOnSuccess.saveBaseline();
+        }
+        if (forkedClasses != null) {
+            // leave no browser or server thread keeping the child alive
+            System.exit(testng.getStatus());
+        }
     }
 }
@@ -0,0 +1,140 @@
+package com.playwright;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-test retry statistics, stored in test-history/flaky.properties next to
+ * DurationHistory: completed runs, runs that needed a retry, runs that passed
+ * on the retry and runs that failed for good. A test whose pass-on-retry rate
+ * reaches -Dflaky.quarantineRate (default 0.3) over at least
+ * -Dflaky.minRuns (default 5) runs is quarantined. The quarantine is stored
+ * as its own counter and stays until the test's entries are deleted from the
+ * file, as quarantined runs are not retried and would otherwise dilute the
+ * rate until the test is released again. Counts of this run are added to
+ * the file under a lock, so forked JVMs can share it.
+ */
+public final class FlakyHistory {
+    private static final String[] COUNTERS = {"runs", "retried", "passedOnRetry", "failed", "quarantined"};
+    private static final double QUARANTINE_RATE = Double.parseDouble(System.getProperty("flaky.quarantineRate", "0.3"));
+    private static final long MIN_RUNS = Long.getLong("flaky.minRuns", 5);
+
+    private final Path file;
+    private final Map<String, Long> stored = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> added = new ConcurrentHashMap<>();
+
+    private FlakyHistory(Path file) {
+        this.file = file;
+    }
+
+    public static FlakyHistory load() {
+        return load(DurationHistory.historyDir().resolve("flaky.properties"));
+    }
+
+    static FlakyHistory load(Path file) {
+        FlakyHistory history = new FlakyHistory(file);
+        history.stored.putAll(read(file));
+        return history;
+    }
+
+    public static String key(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    /** A run finished: passed first time, passed on retry or failed. */
+    public void recordRun(String test, boolean retried, boolean passed) {
+        add(test, "runs");
+        if (retried) {
+            add(test, "retried");
+            if (passed) {
+                add(test, "passedOnRetry");
+            }
+        }
+        if (!passed) {
+            add(test, "failed");
+        }
+        if (count(test, "quarantined") == 0 && reachesRate(test)) {
+            add(test, "quarantined");
+        }
+    }
+
+    public double passOnRetryRate(String test) {
+        long runs = count(test, "runs");
+        return runs == 0 ? 0 : (double) count(test, "passedOnRetry") / runs;
+    }
+
+    public boolean isQuarantined(String test) {
+        return count(test, "quarantined") > 0 || reachesRate(test);
+    }
+
+    private boolean reachesRate(String test) {
+        return count(test, "runs") >= MIN_RUNS && passOnRetryRate(test) >= QUARANTINE_RATE;
+    }
+
+    private long count(String test, String counter) {
+        String key = test + "." + counter;
+        AtomicLong delta = added.get(key);
+        return stored.getOrDefault(key, 0L) + (delta == null ? 0 : delta.get());
+    }
+
+    private void add(String test, String counter) {
+        added.computeIfAbsent(test + "." + counter, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /** Add this run's counts to the file, re-reading it under a lock first. */
+    public synchronized void save() throws IOException {
+        if (added.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(file.getParent());
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                Map<String, Long> current = new TreeMap<>(read(file));
+                added.forEach((key, delta) -> current.merge(key, delta.get(), Long::sum));
+                Properties props = new Properties();
+                current.forEach((key, value) -> props.setProperty(key, Long.toString(value)));
+                Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    props.store(out, "Retry statistics per test (" + String.join(", ", COUNTERS) + ")");
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+                stored.clear();
+                stored.putAll(current);
+                added.clear();
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private static Map<String, Long> read(Path file) {
+        Map<String, Long> values = new TreeMap<>();
+        if (Files.isRegularFile(file)) {
+            Properties props = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                props.load(in);
+                for (String key : props.stringPropertyNames()) {
+                    values.put(key, Long.parseLong(props.getProperty(key)));
+                }
+            } catch (IOException | NumberFormatException e) {
+                System.out.println("[FlakyHistory] Ignoring unreadable history " + file + ": " + e.getMessage());
+                values.clear();
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,93 @@
+package com.playwright;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.testng.IAnnotationTransformer;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.internal.annotations.DisabledRetryAnalyzer;
+
+/**
+ * Wires WarmRetryAnalyzer into every @Test that has no retry analyzer of its
+ * own and keeps FlakyHistory up to date. Tests quarantined by FlakyHistory
+ * still run so their statistics keep updating, but a failure is reported as
+ * a skip and does not fail the build. Registered by DynamicTestNGRunner and
+ * in the surefire configuration.
+ */
+public class FlakyTestListener implements IAnnotationTransformer, IInvokedMethodListener, ITestListener, ISuiteListener {
+    private static final String QUARANTINED = "quarantined";
+    private static FlakyHistory history;
+    // tests whose last attempt failed and was handed to the retry analyzer
+    private static final Set<String> RETRIED = ConcurrentHashMap.newKeySet();
+
+    static synchronized FlakyHistory history() {
+        if (history == null) {
+            history = FlakyHistory.load();
+        }
+        return history;
+    }
+
+    static String key(ITestResult result) {
+        return FlakyHistory.key(result.getTestClass().getName(), result.getMethod().getMethodName());
+    }
+
+    static boolean isQuarantined(ITestResult result) {
+        return history().isQuarantined(key(result));
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        if (annotation.getRetryAnalyzerClass() == null || annotation.getRetryAnalyzerClass() == DisabledRetryAnalyzer.class) {
+            annotation.setRetryAnalyzer(WarmRetryAnalyzer.class);
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (method.isTestMethod() && result.getStatus() == ITestResult.FAILURE && isQuarantined(result)) {
+            result.setAttribute(QUARANTINED, Boolean.TRUE);
+            result.setStatus(ITestResult.SKIP);
+            result.setThrowable(new SkipException("Quarantined flaky test (pass-on-retry rate "
+                    + Math.round(history().passOnRetryRate(key(result)) * 100) + "%) failed: " + result.getThrowable()));
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        history().recordRun(key(result), RETRIED.remove(key(result)), true);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        history().recordRun(key(result), RETRIED.remove(key(result)), false);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (result.wasRetried()) {
+            RETRIED.add(key(result));
+        } else if (result.getAttribute(QUARANTINED) != null) {
+            history().recordRun(key(result), RETRIED.remove(key(result)), false);
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        try {
+            history().save();
+        } catch (IOException e) {
+            System.out.println("[FlakyTestListener] Could not save flaky history: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.playwright;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import com.google.gson.Gson;
+
+/**
+ * TestNG listener used in forked child JVMs: sends one JSON line per finished
+ * test method to the parent DynamicTestNGRunner over a localhost socket, so
+ * the parent can show progress and update DurationHistory while forks run.
+ */
+public class ForkResultStreamer implements ITestListener {
+    private static final Gson GSON = new Gson();
+
+    private final int fork;
+    private final PrintWriter out;
+
+    public ForkResultStreamer(int fork, int port) throws IOException {
+        this.fork = fork;
+        Socket socket = new Socket("127.0.0.1", port);
+        this.out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        send(result, "PASS");
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        send(result, "FAIL");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        // a failed attempt handed to WarmRetryAnalyzer is reported as skipped
+        send(result, result.wasRetried() ? "RETRY" : "SKIP");
+    }
+
+    private void send(ITestResult result, String status) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("fork", fork);
+        event.put("class", result.getTestClass().getName());
+        event.put("method", result.getMethod().getMethodName());
+        event.put("status", status);
+        event.put("durationMs", result.getEndMillis() - result.getStartMillis());
+        if (result.getThrowable() != null) {
+            event.put("error", result.getThrowable().toString());
+        }
+        String line = GSON.toJson(event);
+        synchronized (out) {
+            out.println(line);
+        }
+    }
+}
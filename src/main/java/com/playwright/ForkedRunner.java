@@ -0,0 +1,299 @@
+package com.playwright;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.playwright.report.EventLog;
+import com.playwright.report.EventLogRenderer;
+
+/**
+ * Runs groups of test classes in child JVMs (-Dforks=N), each with its own
+ * Playwright driver, output directory under target/forks/fork-N and report
+ * event log. Children stream per-test results back over a localhost socket
+ * (see ForkResultStreamer); when all have exited, their testng-results.xml
+ * files are merged into test-output/testng-results.xml and their event logs
+ * into one AutomationReport.html.
+ */
+final class ForkedRunner {
+    // -D properties not passed to children: JVM and Maven settings, or set per fork
+    private static final String[] NOT_FORWARDED = {"java.", "jdk.", "sun.", "os.", "user.", "file.", "line.", "path.",
+            "native.", "stdout.", "stderr.", "awt.", "maven.", "classworlds.", "exec.", "library.", "jansi.", "guice.",
+            "runner.", "forks", "shard", "report.", "metrics.dir", "fixture.port"};
+    // keeps merged report test ids unique across forks
+    private static final long TEST_ID_STRIDE = 1_000_000_000L;
+
+    private final DurationHistory history;
+    private final Map<String, Long> classTotals = new ConcurrentHashMap<>();
+    private final AtomicInteger passed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    ForkedRunner(DurationHistory history) {
+        this.history = history;
+    }
+
+    static Path forkDir(int fork) {
+        return Paths.get("target", "forks", "fork-" + fork);
+    }
+
+    /** Run every non-empty group in its own JVM and merge the results. True when every fork passed. */
+    boolean run(List<List<String>> groups) throws IOException {
+        long start = System.currentTimeMillis();
+        List<Thread> readers = new ArrayList<>();
+        List<Process> processes = new ArrayList<>();
+        List<Integer> forks = new ArrayList<>();
+        boolean allExitedCleanly = true;
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            Thread acceptor = new Thread(() -> accept(server, readers), "fork-results");
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            for (int i = 0; i < groups.size(); i++) {
+                if (groups.get(i).isEmpty()) {
+                    continue;
+                }
+                int fork = i + 1;
+                processes.add(launch(fork, groups.get(i), server.getLocalPort()));
+                forks.add(fork);
+                System.out.println("[ForkedRunner] Started fork " + fork + " with " + groups.get(i).size() + " classes, expected "
+                        + ShardPlanner.expectedMillis(groups.get(i), history) + " ms");
+            }
+            for (int i = 0; i < processes.size(); i++) {
+                int exit = processes.get(i).waitFor();
+                if (exit != 0) {
+                    allExitedCleanly = false;
+                    System.out.println("[ForkedRunner] Fork " + forks.get(i) + " exited with code " + exit + ", see "
+                            + forkDir(forks.get(i)).resolve("console.log"));
+                }
+            }
+            // children have exited, so their sockets are at EOF
+            synchronized (readers) {
+                for (Thread reader : readers) {
+                    reader.join(10000);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            processes.forEach(Process::destroy);
+            allExitedCleanly = false;
+        }
+
+        classTotals.forEach(history::recordClass);
+        history.save();
+        mergeTestNgResults(forks);
+        mergeReports(forks);
+        System.out.println("[ForkedRunner] " + forks.size() + " forks finished in " + (System.currentTimeMillis() - start)
+                + " ms: " + passed + " passed, " + failed + " failed, " + skipped + " skipped");
+        return allExitedCleanly && failed.get() == 0;
+    }
+
+    private Process launch(int fork, List<String> classes, int port) throws IOException {
+        Path dir = forkDir(fork);
+        Files.createDirectories(dir);
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(classpath());
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (forwarded(key)) {
+                command.add("-D" + key + "=" + System.getProperty(key));
+            }
+        }
+        command.add("-Drunner.classes=" + String.join(",", classes));
+        command.add("-Drunner.fork=" + fork);
+        command.add("-Drunner.resultPort=" + port);
+        command.add("-Drunner.outputDir=" + dir.resolve("test-output"));
+        command.add("-Dreport.dir=" + dir.resolve("reports"));
+        command.add("-Dreport.render=false");
+        command.add("-Dmetrics.dir=" + dir.resolve("metrics"));
+        command.add(DynamicTestNGRunner.class.getName());
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(dir.resolve("console.log").toFile())
+                .start();
+    }
+
+    private static boolean forwarded(String key) {
+        for (String prefix : NOT_FORWARDED) {
+            if (key.startsWith(prefix)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Classpath of the running tests; under exec:java that is the context class loader, not java.class.path. */
+    private static String classpath() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader instanceof URLClassLoader) {
+            List<String> entries = new ArrayList<>();
+            for (URL url : ((URLClassLoader) loader).getURLs()) {
+                try {
+                    entries.add(Paths.get(url.toURI()).toString());
+                } catch (Exception e) {
+                    // not a local file, the child cannot use it anyway
+                }
+            }
+            if (!entries.isEmpty()) {
+                return String.join(File.pathSeparator, entries);
+            }
+        }
+        return System.getProperty("java.class.path");
+    }
+
+    private void accept(ServerSocket server, List<Thread> readers) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread reader = new Thread(() -> read(socket), "fork-results-reader");
+                reader.setDaemon(true);
+                synchronized (readers) {
+                    readers.add(reader);
+                }
+                reader.start();
+            } catch (IOException e) {
+                // closed after the last fork finished
+            }
+        }
+    }
+
+    private void read(Socket socket) {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                JsonObject result = JsonParser.parseString(line).getAsJsonObject();
+                String className = result.get("class").getAsString();
+                String method = result.get("method").getAsString();
+                String status = result.get("status").getAsString();
+                long millis = result.get("durationMs").getAsLong();
+                switch (status) {
+                    case "PASS":
+                        passed.incrementAndGet();
+                        break;
+                    case "FAIL":
+                        failed.incrementAndGet();
+                        break;
+                    case "RETRY":
+                        break;
+                    default:
+                        skipped.incrementAndGet();
+                }
+                if ("PASS".equals(status) || "FAIL".equals(status)) {
+                    history.recordMethod(className, method, millis);
+                    classTotals.merge(className, millis, Long::sum);
+                }
+                System.out.println("[fork " + result.get("fork").getAsInt() + "] " + status + " " + className + "." + method
+                        + " (" + millis + " ms)" + (result.has("error") ? " " + result.get("error").getAsString() : ""));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("[ForkedRunner] Result stream ended: " + e.getMessage());
+        }
+    }
+
+    /** Combine the children's suites under one testng-results.xml with summed counters. */
+    private static void mergeTestNgResults(List<Integer> forks) {
+        String[] counters = {"ignored", "total", "passed", "failed", "skipped"};
+        try {
+            DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            Document merged = builder.newDocument();
+            Element root = merged.createElement("testng-results");
+            merged.appendChild(root);
+            long[] sums = new long[counters.length];
+            for (int fork : forks) {
+                Path file = forkDir(fork).resolve("test-output").resolve("testng-results.xml");
+                if (!Files.exists(file)) {
+                    continue;
+                }
+                Element results = builder.parse(file.toFile()).getDocumentElement();
+                for (int i = 0; i < counters.length; i++) {
+                    String value = results.getAttribute(counters[i]);
+                    sums[i] += value.isEmpty() ? 0 : Long.parseLong(value);
+                }
+                NodeList suites = results.getElementsByTagName("suite");
+                for (int i = 0; i < suites.getLength(); i++) {
+                    root.appendChild(merged.importNode(suites.item(i), true));
+                }
+            }
+            for (int i = 0; i < counters.length; i++) {
+                root.setAttribute(counters[i], Long.toString(sums[i]));
+            }
+            Path target = Paths.get("test-output", "testng-results.xml");
+            Files.createDirectories(target.getParent());
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.transform(new DOMSource(merged), new StreamResult(target.toFile()));
+            System.out.println("[ForkedRunner] Merged TestNG results into " + target);
+        } catch (Exception e) {
+            System.out.println("[ForkedRunner] Could not merge TestNG results: " + e.getMessage());
+        }
+    }
+
+    /** Concatenate the children's event logs with fork-unique test ids and render one report. */
+    private static void mergeReports(List<Integer> forks) {
+        Path events = EventLog.eventsFile();
+        try {
+            Files.createDirectories(events.getParent());
+            try (BufferedWriter out = Files.newBufferedWriter(events, StandardCharsets.UTF_8)) {
+                for (int fork : forks) {
+                    Path source = forkDir(fork).resolve("reports").resolve("events.jsonl");
+                    if (!Files.exists(source)) {
+                        continue;
+                    }
+                    try (BufferedReader in = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+                        String line;
+                        while ((line = in.readLine()) != null) {
+                            if (line.isBlank()) {
+                                continue;
+                            }
+                            JsonObject event;
+                            try {
+                                event = JsonParser.parseString(line).getAsJsonObject();
+                            } catch (RuntimeException e) {
+                                continue;
+                            }
+                            if (event.has("test")) {
+                                event.addProperty("test", fork * TEST_ID_STRIDE + event.get("test").getAsLong());
+                            }
+                            out.write(event.toString());
+                            out.write('\n');
+                        }
+                    }
+                }
+            }
+            EventLogRenderer.render(events, EventLog.reportDir().resolve("AutomationReport.html"));
+        } catch (IOException e) {
+            System.out.println("[ForkedRunner] Could not merge reports: " + e.getMessage());
+        }
+    }
+}
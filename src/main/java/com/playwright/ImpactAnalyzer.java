@@ -0,0 +1,158 @@
+package com.playwright;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Change-based test selection for DynamicTestNGRunner (-Dimpact=true). Builds
+ * a dependency graph of the compiled project classes from their bytecode
+ * (e.g. ActionsTest -> MainPageActions, OtherTabPage, ScreenshotUtil,
+ * BaseSetup) and compares class file hashes with the baseline written after
+ * the last fully passing run (test-history/impact-baseline.properties). Only
+ * test classes that reach a changed class are selected. Without a baseline
+ * every test is selected. Changes to non-class resources are not tracked.
+ */
+public final class ImpactAnalyzer {
+    private final Map<String, String> hashes = new TreeMap<>();
+    private final Map<String, Set<String>> dependencies = new HashMap<>();
+    private final Path baselineFile;
+
+    ImpactAnalyzer(Path baselineFile) {
+        this.baselineFile = baselineFile;
+    }
+
+    /** Hash and parse every class file in the classpath directories. */
+    public static ImpactAnalyzer scan() throws IOException {
+        ImpactAnalyzer analyzer = new ImpactAnalyzer(DurationHistory.historyDir().resolve("impact-baseline.properties"));
+        for (Path root : TestClassIndex.classpathDirectories()) {
+            List<Path> classFiles;
+            try (Stream<Path> walk = Files.walk(root)) {
+                classFiles = walk.filter(p -> p.toString().endsWith(".class")).toList();
+            }
+            for (Path file : classFiles) {
+                byte[] bytes = Files.readAllBytes(file);
+                try (InputStream in = new ByteArrayInputStream(bytes)) {
+                    ClassFileInfo info = ClassFileInfo.read(in);
+                    analyzer.add(info.getClassName(), sha256(bytes), info.getReferencedClasses());
+                } catch (IOException e) {
+                    System.out.println("[ImpactAnalyzer] Skipping unreadable class file " + file + ": " + e.getMessage());
+                }
+            }
+        }
+        return analyzer;
+    }
+
+    void add(String className, String hash, Set<String> referencedClasses) {
+        hashes.put(className, hash);
+        dependencies.put(className, referencedClasses);
+    }
+
+    /**
+     * The subset of testClasses affected by changes since the baseline, in
+     * the given order. Returns all of them when there is no baseline.
+     */
+    public List<String> affected(List<String> testClasses) {
+        Map<String, String> baseline = readBaseline();
+        if (baseline.isEmpty()) {
+            System.out.println("[ImpactAnalyzer] No baseline in " + baselineFile + ", selecting all tests");
+            return testClasses;
+        }
+        Set<String> changed = new TreeSet<>();
+        hashes.forEach((name, hash) -> {
+            if (!hash.equals(baseline.get(name))) {
+                changed.add(name);
+            }
+        });
+        System.out.println("[ImpactAnalyzer] " + changed.size() + " changed classes since baseline: " + changed);
+
+        // walk the reverse graph from every changed class
+        Map<String, Set<String>> dependents = new HashMap<>();
+        dependencies.forEach((name, refs) -> {
+            for (String ref : refs) {
+                if (hashes.containsKey(ref)) {
+                    dependents.computeIfAbsent(ref, k -> new HashSet<>()).add(name);
+                }
+            }
+        });
+        Set<String> impacted = new HashSet<>(changed);
+        Deque<String> queue = new ArrayDeque<>(changed);
+        while (!queue.isEmpty()) {
+            for (String dependent : dependents.getOrDefault(queue.poll(), Set.of())) {
+                if (impacted.add(dependent)) {
+                    queue.add(dependent);
+                }
+            }
+        }
+
+        List<String> selected = new ArrayList<>();
+        for (String testClass : testClasses) {
+            if (impacted.contains(testClass)) {
+                selected.add(testClass);
+            }
+        }
+        System.out.println("[ImpactAnalyzer] Selected " + selected.size() + " of " + testClasses.size() + " test classes");
+        return selected;
+    }
+
+    /** Record the current hashes as the baseline; call only after a fully passing run. */
+    public void saveBaseline() {
+        Properties props = new Properties();
+        hashes.forEach(props::setProperty);
+        try {
+            Files.createDirectories(baselineFile.getParent());
+            Path tmp = baselineFile.resolveSibling(baselineFile.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                props.store(out, "Class file hashes of the last passing run");
+            }
+            Files.move(tmp, baselineFile, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("[ImpactAnalyzer] Saved baseline of " + hashes.size() + " classes to " + baselineFile);
+        } catch (IOException e) {
+            System.out.println("[ImpactAnalyzer] Could not save baseline: " + e.getMessage());
+        }
+    }
+
+    private Map<String, String> readBaseline() {
+        Map<String, String> baseline = new HashMap<>();
+        if (Files.isRegularFile(baselineFile)) {
+            Properties props = new Properties();
+            try (InputStream in = Files.newInputStream(baselineFile)) {
+                props.load(in);
+                for (String key : props.stringPropertyNames()) {
+                    baseline.put(key, props.getProperty(key));
+                }
+            } catch (IOException e) {
+                System.out.println("[ImpactAnalyzer] Ignoring unreadable baseline " + baselineFile + ": " + e.getMessage());
+                baseline.clear();
+            }
+        }
+        return baseline;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
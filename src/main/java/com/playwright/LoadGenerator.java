@@ -0,0 +1,207 @@
+package com.playwright;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import com.google.gson.GsonBuilder;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.playwright.fixtures.FixtureServer;
+import com.playwright.utils.LatencyHistogram;
+import com.playwright.utils.StepMetrics;
+
+import pages.HomePage;
+import pages.LoginPage;
+
+/**
+ * Synthetic load mode: runs the functional page objects (LoginPage.login,
+ * HomePage.waitForDashboard/isDashboardVisible) as virtual users, each in its
+ * own BrowserContext, spread over a few browser processes (BrowserServer).
+ * Playwright is single-threaded, so every virtual user has its own
+ * Playwright connected to one of the shared browsers.
+ * <p>
+ * Options: -Dload.users=10 virtual users, -Dload.browsers=2 browser
+ * processes, -Dload.rampUpSeconds=10, -Dload.durationSeconds=60 steady
+ * state, -Dload.thinkTimeMs=1000 between iterations, -Dload.url (default:
+ * the local FixtureServer login), -Dload.username / -Dload.password.
+ * Steps are measured during steady state only; throughput and p50/p95/p99
+ * per step are printed and written to target/metrics/load.json.
+ */
+public final class LoadGenerator {
+    private static final String[] STEPS = {"newContext", "login", "dashboardVisible", "iteration"};
+
+    private final int users = Integer.getInteger("load.users", 10);
+    private final int browsers = Math.max(1, Integer.getInteger("load.browsers", 2));
+    private final long rampUpMillis = Long.getLong("load.rampUpSeconds", 10) * 1000;
+    private final long durationMillis = Long.getLong("load.durationSeconds", 60) * 1000;
+    private final long thinkTimeMillis = Long.getLong("load.thinkTimeMs", 1000);
+    private final String username = System.getProperty("load.username", "Admin");
+    private final String password = System.getProperty("load.password", "admin123");
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> failures = new ConcurrentHashMap<>();
+    private long steadyStart;
+    private long steadyEnd;
+
+    public static void main(String[] args) throws Exception {
+        // every iteration must really log in and only the page objects should be timed
+        System.setProperty("auth.state.ttlMinutes", System.getProperty("auth.state.ttlMinutes", "0"));
+        System.setProperty("perf.capture", System.getProperty("perf.capture", "false"));
+        System.setProperty("headless", System.getProperty("headless", "true"));
+        boolean localServer = System.getProperty("load.url", "").isBlank();
+        String url = localServer ? FixtureServer.start().baseUrl() + "/" : System.getProperty("load.url");
+        try {
+            new LoadGenerator().run(url);
+        } finally {
+            if (localServer) {
+                FixtureServer.stop();
+            }
+        }
+    }
+
+    void run(String url) throws IOException, InterruptedException {
+        for (String step : STEPS) {
+            histograms.put(step, new LatencyHistogram());
+            failures.put(step, new AtomicLong());
+        }
+        BrowserSpec spec = BrowserSpec.fromSystemProperties(System.getProperty("platformName", "linux"));
+        List<BrowserServer> servers = new ArrayList<>();
+        try {
+            for (int i = 0; i < browsers; i++) {
+                servers.add(BrowserServer.launch(spec));
+            }
+            long start = System.currentTimeMillis();
+            steadyStart = start + rampUpMillis;
+            steadyEnd = steadyStart + durationMillis;
+            System.out.println("[LoadGenerator] " + users + " users on " + browsers + " " + spec.key() + " browsers against " + url
+                    + ", ramp-up " + rampUpMillis + " ms, steady state " + durationMillis + " ms, think time " + thinkTimeMillis + " ms");
+
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                BrowserServer server = servers.get(i % servers.size());
+                long startAt = start + (users <= 1 ? 0 : rampUpMillis * i / users);
+                Thread user = new Thread(() -> virtualUser(spec, server, url, startAt), "vu-" + i);
+                threads.add(user);
+                user.start();
+            }
+            for (Thread user : threads) {
+                user.join();
+            }
+        } finally {
+            servers.forEach(BrowserServer::close);
+        }
+        report();
+    }
+
+    private void virtualUser(BrowserSpec spec, BrowserServer server, String url, long startAt) {
+        try (Playwright playwright = Playwright.create()) {
+            Browser browser = spec.browserType(playwright).connect(server.wsEndpoint());
+            sleepUntil(startAt);
+            while (System.currentTimeMillis() < steadyEnd) {
+                long iterationStart = System.nanoTime();
+                boolean measured = System.currentTimeMillis() >= steadyStart;
+                BrowserContext[] context = new BrowserContext[1];
+                Page[] page = new Page[1];
+                boolean ok = timed("newContext", measured, () -> {
+                    context[0] = browser.newContext();
+                    page[0] = context[0].newPage();
+                    return true;
+                });
+                ok = ok && timed("login", measured, () -> {
+                    new LoginPage(page[0]).login(url, username, password);
+                    return true;
+                });
+                ok = ok && timed("dashboardVisible", measured, () -> {
+                    HomePage home = new HomePage(page[0]);
+                    return home.waitForDashboard(10000) && home.isDashboardVisible();
+                });
+                if (context[0] != null) {
+                    context[0].close();
+                }
+                if (measured) {
+                    record("iteration", System.nanoTime() - iterationStart, ok);
+                }
+                Thread.sleep(thinkTimeMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.out.println("[LoadGenerator] " + Thread.currentThread().getName() + " stopped: " + e.getMessage());
+        }
+    }
+
+    private boolean timed(String step, boolean measured, BooleanSupplier body) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = body.getAsBoolean();
+        } catch (Exception e) {
+            ok = false;
+        }
+        if (measured) {
+            record(step, System.nanoTime() - start, ok);
+        }
+        return ok;
+    }
+
+    private void record(String step, long nanos, boolean ok) {
+        histograms.get(step).record(nanos / 1e6);
+        if (!ok) {
+            failures.get(step).incrementAndGet();
+        }
+    }
+
+    private void report() throws IOException {
+        double seconds = durationMillis / 1000.0;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        System.out.println(String.format("[LoadGenerator] %-18s %8s %8s %10s %9s %9s %9s", "step", "count", "failed", "per sec",
+                "p50 ms", "p95 ms", "p99 ms"));
+        for (String step : STEPS) {
+            LatencyHistogram h = histograms.get(step);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("step", step);
+            row.put("count", h.count());
+            row.put("failures", failures.get(step).get());
+            row.put("throughputPerSecond", round(h.count() / seconds));
+            row.put("p50Ms", round(h.percentile(50)));
+            row.put("p95Ms", round(h.percentile(95)));
+            row.put("p99Ms", round(h.percentile(99)));
+            row.put("maxMs", round(h.maxMillis()));
+            rows.add(row);
+            System.out.println(String.format("[LoadGenerator] %-18s %8d %8d %10.2f %9.1f %9.1f %9.1f", step, h.count(),
+                    failures.get(step).get(), h.count() / seconds, h.percentile(50), h.percentile(95), h.percentile(99)));
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("users", users);
+        result.put("browsers", browsers);
+        result.put("steadyStateSeconds", seconds);
+        result.put("thinkTimeMs", thinkTimeMillis);
+        result.put("steps", rows);
+        Path file = StepMetrics.metricsDir().resolve("load.json");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, new GsonBuilder().setPrettyPrinting().create().toJson(result), StandardCharsets.UTF_8);
+        System.out.println("[LoadGenerator] Wrote " + file);
+    }
+
+    private static void sleepUntil(long millis) throws InterruptedException {
+        long wait = millis - System.currentTimeMillis();
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,83 @@
+package com.playwright;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.options.RouteFromHarUpdateContentPolicy;
+import com.microsoft.playwright.options.HarMode;
+import com.microsoft.playwright.options.HarNotFound;
+
+/**
+ * Network source for a test, selected with -Dnetwork=(live|record|replay).
+ * <ul>
+ * <li>live: requests go to the real sites (default).</li>
+ * <li>record: responses are recorded through routeFromHAR(update) and written
+ * when the context closes.</li>
+ * <li>replay: responses are served from the recorded archive; requests not in
+ * the archive are aborted or sent to the network per -Dhar.unmatched=(abort|fallback).
+ * A missing archive fails the test setup unless -Dhar.missing=live lets the
+ * test run against the real sites.</li>
+ * </ul>
+ * Archives are stored per test class under -Dhar.dir (default
+ * src/test/resources/har), one file per test method because every method gets
+ * its own context.
+ */
+public enum NetworkMode {
+    LIVE, RECORD, REPLAY;
+
+    public static NetworkMode fromSystemProperties() {
+        switch (System.getProperty("network", "live").trim().toLowerCase()) {
+            case "record":
+                return RECORD;
+            case "replay":
+                return REPLAY;
+            default:
+                return LIVE;
+        }
+    }
+
+    public static Path harFile(Class<?> testClass, String methodName) {
+        Path dir = Paths.get(System.getProperty("har.dir", Paths.get("src", "test", "resources", "har").toString()));
+        return dir.resolve(testClass.getSimpleName()).resolve((methodName == null ? "default" : methodName) + ".har");
+    }
+
+    /**
+     * Install the record or replay route on a freshly created context.
+     * Throws IllegalStateException in replay mode when the archive is missing
+     * (see -Dhar.missing).
+     */
+    public void apply(BrowserContext context, Class<?> testClass, String methodName) {
+        Path har = harFile(testClass, methodName);
+        switch (this) {
+            case RECORD:
+                try {
+                    Files.createDirectories(har.getParent());
+                } catch (Exception e) {
+                    System.out.println("[NetworkMode] Cannot create " + har.getParent() + ": " + e.getMessage());
+                    return;
+                }
+                context.routeFromHAR(har, new BrowserContext.RouteFromHAROptions()
+                        .setUpdate(true)
+                        .setUpdateContent(RouteFromHarUpdateContentPolicy.EMBED)
+                        .setUpdateMode(HarMode.MINIMAL));
+                break;
+            case REPLAY:
+                if (!Files.isRegularFile(har)) {
+                    if ("live".equalsIgnoreCase(System.getProperty("har.missing", "fail").trim())) {
+                        System.out.println("[NetworkMode] No archive " + har + ", running live (-Dhar.missing=live)");
+                        return;
+                    }
+                    throw new IllegalStateException("No HAR archive " + har + " for -Dnetwork=replay; record it with -Dnetwork=record"
+                            + " or pass -Dhar.missing=live to run such tests against the real sites");
+                }
+                boolean fallback = "fallback".equalsIgnoreCase(System.getProperty("har.unmatched", "abort").trim());
+                context.routeFromHAR(har, new BrowserContext.RouteFromHAROptions()
+                        .setNotFound(fallback ? HarNotFound.FALLBACK : HarNotFound.ABORT));
+                break;
+            default:
+                break;
+        }
+    }
+}
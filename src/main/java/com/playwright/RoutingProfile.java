@@ -0,0 +1,146 @@
+package com.playwright;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+
+/**
+ * Named request-routing profiles applied to a BrowserContext when it is
+ * created. A profile aborts requests by resource type and by host and keeps
+ * counters of what it blocked. The profile is chosen per test class with
+ * {@link UseRoutingProfile} or for the whole run with -DnetworkProfile
+ * (default "full", which installs no route at all).
+ * <p>
+ * Bytes saved are an estimate: blocked requests are never sent, so their size
+ * is taken from a typical size per resource type.
+ */
+public final class RoutingProfile {
+    private static final Set<String> ANALYTICS_HOSTS = Set.of(
+            "google-analytics.com", "googletagmanager.com", "doubleclick.net", "googlesyndication.com",
+            "facebook.net", "hotjar.com", "segment.io", "clarity.ms", "newrelic.com", "nr-data.net");
+
+    private static final Map<String, Long> TYPICAL_BYTES = Map.of(
+            "image", 40_000L, "font", 30_000L, "media", 500_000L, "script", 25_000L, "stylesheet", 15_000L);
+
+    private static final Map<String, RoutingProfile> PROFILES = new LinkedHashMap<>();
+
+    static {
+        register(new RoutingProfile("full", Collections.emptySet(), false));
+        register(new RoutingProfile("no-media", Set.of("image", "media"), false));
+        register(new RoutingProfile("functional-minimal", Set.of("image", "font", "media"), true));
+    }
+
+    private final String name;
+    private final Set<String> blockedTypes;
+    private final boolean blockAnalytics;
+    private final AtomicLong blockedRequests = new AtomicLong();
+    private final AtomicLong estimatedBytesSaved = new AtomicLong();
+    private final Map<String, AtomicLong> blockedByType = new ConcurrentHashMap<>();
+
+    public RoutingProfile(String name, Set<String> blockedTypes, boolean blockAnalytics) {
+        this.name = name;
+        this.blockedTypes = blockedTypes;
+        this.blockAnalytics = blockAnalytics;
+    }
+
+    /** Make a custom profile selectable by name; names are matched case-insensitively. */
+    public static synchronized void register(RoutingProfile profile) {
+        PROFILES.put(normalize(profile.name), profile);
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase();
+    }
+
+    /**
+     * Profile for a test class: its {@link UseRoutingProfile} annotation, else
+     * -DnetworkProfile, else "full".
+     */
+    public static synchronized RoutingProfile forClass(Class<?> testClass) {
+        UseRoutingProfile annotation = testClass.getAnnotation(UseRoutingProfile.class);
+        String name = annotation != null ? annotation.value() : System.getProperty("networkProfile", "full");
+        RoutingProfile profile = PROFILES.get(normalize(name));
+        if (profile == null) {
+            System.out.println("[RoutingProfile] Unknown profile '" + name + "', using 'full'");
+            return PROFILES.get("full");
+        }
+        return profile;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Install the blocking route on the context; a no-op for profiles that block nothing. */
+    public void apply(BrowserContext context) {
+        if (blockedTypes.isEmpty() && !blockAnalytics) {
+            return;
+        }
+        context.route("**/*", route -> {
+            Request request = route.request();
+            if (blocks(request)) {
+                blockedRequests.incrementAndGet();
+                blockedByType.computeIfAbsent(request.resourceType(), t -> new AtomicLong()).incrementAndGet();
+                estimatedBytesSaved.addAndGet(TYPICAL_BYTES.getOrDefault(request.resourceType(), 5_000L));
+                route.abort("blockedbyclient");
+            } else {
+                // let routes registered earlier (or the network) handle it
+                route.fallback();
+            }
+        });
+    }
+
+    boolean blocks(Request request) {
+        if (blockedTypes.contains(request.resourceType())) {
+            return true;
+        }
+        return blockAnalytics && isAnalyticsHost(request.url());
+    }
+
+    private static boolean isAnalyticsHost(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            if (host == null) {
+                return false;
+            }
+            for (String analytics : ANALYTICS_HOSTS) {
+                if (host.equals(analytics) || host.endsWith("." + analytics)) {
+                    return true;
+                }
+            }
+        } catch (IllegalArgumentException ignored) {
+        }
+        return false;
+    }
+
+    public long blockedRequests() {
+        return blockedRequests.get();
+    }
+
+    public long estimatedBytesSaved() {
+        return estimatedBytesSaved.get();
+    }
+
+    /** One line per profile that blocked anything, for the end-of-suite log. */
+    public static synchronized String metricsSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (RoutingProfile profile : PROFILES.values()) {
+            if (profile.blockedRequests.get() == 0) {
+                continue;
+            }
+            Map<String, Long> byType = new TreeMap<>();
+            profile.blockedByType.forEach((type, count) -> byType.put(type, count.get()));
+            summary.append(String.format("%s: blocked=%d estimatedBytesSaved=%d byType=%s%n",
+                    profile.name, profile.blockedRequests.get(), profile.estimatedBytesSaved.get(), byType));
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package com.playwright;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Splits test classes into groups. Forks of one run share a history, so they
+ * are balanced by expected duration (longest processing time first: each
+ * class, slowest first, goes to the group with the smallest expected total).
+ * CI shards do not: every node computes the split on its own, so shards() by
+ * default only uses the class names.
+ */
+public final class ShardPlanner {
+
+    private ShardPlanner() {
+    }
+
+    /** Classes ordered slowest first, ties broken by name. */
+    public static List<String> longestFirst(List<String> classes, DurationHistory history) {
+        List<String> sorted = new ArrayList<>(classes);
+        sorted.sort(Comparator.comparingLong(history::expectedClassMillis).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        return sorted;
+    }
+
+    /** Partition classes into {@code count} groups with balanced expected runtime. */
+    public static List<List<String>> partition(List<String> classes, DurationHistory history, int count) {
+        List<List<String>> groups = new ArrayList<>();
+        long[] totals = new long[count];
+        for (int i = 0; i < count; i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (String className : longestFirst(classes, history)) {
+            int target = 0;
+            for (int i = 1; i < count; i++) {
+                if (totals[i] < totals[target]) {
+                    target = i;
+                }
+            }
+            groups.get(target).add(className);
+            totals[target] += history.expectedClassMillis(className);
+        }
+        return groups;
+    }
+
+    /**
+     * Split classes into {@code count} shards for -Dshard=i/N. Each node only
+     * records durations of the classes it ran, so histories differ between
+     * nodes and a duration-based split would leave some classes on no node
+     * and others on two. Classes are therefore sorted by name and dealt
+     * round-robin. -Dshard.balance=durations balances by duration instead;
+     * use it only when every node starts from the same history (e.g. one
+     * restored from a shared location before the run). Even then names are
+     * used while the history does not know every class.
+     */
+    public static List<List<String>> shards(List<String> classes, DurationHistory history, int count) {
+        if ("durations".equalsIgnoreCase(System.getProperty("shard.balance", "names")) && history.knowsAll(classes)) {
+            return partition(classes, history, count);
+        }
+        List<String> sorted = new ArrayList<>(classes);
+        sorted.sort(Comparator.naturalOrder());
+        List<List<String>> groups = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (int i = 0; i < sorted.size(); i++) {
+            groups.get(i % count).add(sorted.get(i));
+        }
+        return groups;
+    }
+
+    /** Expected runtime of a group in milliseconds. */
+    public static long expectedMillis(List<String> group, DurationHistory history) {
+        long total = 0;
+        for (String className : group) {
+            total += history.expectedClassMillis(className);
+        }
+        return total;
+    }
+
+    /**
+     * Parse a "-Dshard=i/N" value (1-based). Returns {index, count} with a
+     * 0-based index, or null when the value is empty.
+     */
+    public static int[] parseShard(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String[] parts = value.trim().split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Expected -Dshard=i/N but got " + value);
+        }
+        int index = Integer.parseInt(parts[0].trim());
+        int count = Integer.parseInt(parts[1].trim());
+        if (count < 1 || index < 1 || index > count) {
+            throw new IllegalArgumentException("Shard index must be between 1 and N: " + value);
+        }
+        return new int[] { index - 1, count };
+    }
+}
@@ -0,0 +1,219 @@
+package com.playwright;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Index of TestNG test classes found in the compiled classpath directories.
+ * Class files are inspected with ClassFileInfo instead of being loaded, and
+ * the result is cached under target/test-index in a file keyed by a hash of
+ * the classpath. On the next start only class files whose size or
+ * modification time changed are parsed again.
+ */
+public final class TestClassIndex {
+    private static final String TESTNG_TEST = "Lorg/testng/annotations/Test;";
+    private static final String FORMAT_VERSION = "v1";
+
+    private final List<Path> roots;
+    private final Path cacheFile;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private int parsed;
+
+    private TestClassIndex(List<Path> roots, Path cacheFile) {
+        this.roots = roots;
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Build (or refresh) the index for the classpath directories visible to
+     * the context class loader. The cache directory can be overridden with
+     * -Dtest.index.dir.
+     */
+    public static TestClassIndex load() throws IOException {
+        return load(classpathDirectories(),
+                Paths.get(System.getProperty("test.index.dir", Paths.get("target", "test-index").toString())));
+    }
+
+    /** Build (or refresh) the index for the given class directories, caching it in cacheDir. */
+    static TestClassIndex load(List<Path> roots, Path cacheDir) throws IOException {
+        Path cacheFile = cacheDir.resolve("index-" + hash(FORMAT_VERSION + roots).substring(0, 16) + ".tsv");
+        TestClassIndex index = new TestClassIndex(roots, cacheFile);
+        index.refresh();
+        return index;
+    }
+
+    /** Directories on the classpath; jars are skipped because tests are never packaged there. */
+    static List<Path> classpathDirectories() {
+        List<String> elements = new ArrayList<>();
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader instanceof URLClassLoader) {
+            // exec:java runs the runner inside Maven with the project classpath on an isolated loader
+            for (URL url : ((URLClassLoader) loader).getURLs()) {
+                try {
+                    elements.add(Paths.get(url.toURI()).toString());
+                } catch (URISyntaxException | IllegalArgumentException ignored) {
+                }
+            }
+        }
+        if (elements.isEmpty()) {
+            for (String element : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+                elements.add(element);
+            }
+        }
+        List<Path> dirs = new ArrayList<>();
+        for (String element : elements) {
+            Path path = Paths.get(element).toAbsolutePath().normalize();
+            if (!element.isEmpty() && Files.isDirectory(path) && !dirs.contains(path)) {
+                dirs.add(path);
+            }
+        }
+        return dirs;
+    }
+
+    private void refresh() throws IOException {
+        Map<String, Entry> cached = readCache();
+        for (Path root : roots) {
+            List<Path> classFiles;
+            try (Stream<Path> walk = Files.walk(root)) {
+                classFiles = walk.filter(p -> p.toString().endsWith(".class")).sorted().toList();
+            }
+            for (Path file : classFiles) {
+                String key = file.toString();
+                long modified = Files.getLastModifiedTime(file).toMillis();
+                long size = Files.size(file);
+                Entry entry = cached.get(key);
+                if (entry == null || entry.modified != modified || entry.size != size) {
+                    try (InputStream in = Files.newInputStream(file)) {
+                        ClassFileInfo info = ClassFileInfo.read(in);
+                        entry = new Entry(key, modified, size, info.getClassName(), info.getSuperName(),
+                                info.usesDescriptor(TESTNG_TEST), info.isConcrete());
+                        parsed++;
+                    } catch (IOException e) {
+                        System.out.println("[TestClassIndex] Skipping unreadable class file " + file + ": " + e.getMessage());
+                        continue;
+                    }
+                }
+                entries.put(key, entry);
+            }
+        }
+        if (parsed > 0 || cached.size() != entries.size()) {
+            writeCache();
+        }
+    }
+
+    /**
+     * Concrete classes that declare TestNG @Test themselves or inherit it from
+     * an indexed super class, sorted by name.
+     */
+    public List<String> testClasses() {
+        Map<String, Entry> byName = new HashMap<>();
+        for (Entry entry : entries.values()) {
+            byName.put(entry.className, entry);
+        }
+        Set<String> result = new TreeSet<>();
+        for (Entry entry : entries.values()) {
+            if (entry.concrete && hasTests(entry, byName, new HashSet<>())) {
+                result.add(entry.className);
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static boolean hasTests(Entry entry, Map<String, Entry> byName, Set<String> seen) {
+        if (entry == null || !seen.add(entry.className)) {
+            return false;
+        }
+        return entry.hasTests || hasTests(byName.get(entry.superName), byName, seen);
+    }
+
+    /** Number of class files parsed during this load; 0 means the cache was fully reused. */
+    public int parsedCount() {
+        return parsed;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Map<String, Entry> readCache() {
+        Map<String, Entry> cached = new HashMap<>();
+        if (!Files.isRegularFile(cacheFile)) {
+            return cached;
+        }
+        try {
+            for (String line : Files.readAllLines(cacheFile, StandardCharsets.UTF_8)) {
+                String[] f = line.split("\t");
+                if (f.length == 7) {
+                    cached.put(f[0], new Entry(f[0], Long.parseLong(f[1]), Long.parseLong(f[2]), f[3],
+                            f[4].isEmpty() ? null : f[4], Boolean.parseBoolean(f[5]), Boolean.parseBoolean(f[6])));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("[TestClassIndex] Ignoring unreadable cache " + cacheFile + ": " + e.getMessage());
+            cached.clear();
+        }
+        return cached;
+    }
+
+    private void writeCache() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Entry e : entries.values()) {
+            lines.add(String.join("\t", e.path, Long.toString(e.modified), Long.toString(e.size), e.className,
+                    e.superName == null ? "" : e.superName, Boolean.toString(e.hasTests), Boolean.toString(e.concrete)));
+        }
+        Files.createDirectories(cacheFile.getParent());
+        Path tmp = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        Files.write(tmp, lines, StandardCharsets.UTF_8);
+        Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        final String path;
+        final long modified;
+        final long size;
+        final String className;
+        final String superName;
+        final boolean hasTests;
+        final boolean concrete;
+
+        Entry(String path, long modified, long size, String className, String superName, boolean hasTests, boolean concrete) {
+            this.path = path;
+            this.modified = modified;
+            this.size = size;
+            this.className = className;
+            this.superName = superName;
+            this.hasTests = hasTests;
+            this.concrete = concrete;
+        }
+    }
+}
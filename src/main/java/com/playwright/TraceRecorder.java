@@ -0,0 +1,132 @@
+package com.playwright;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Tracing;
+import com.playwright.utils.BackgroundIo;
+
+/**
+ * Playwright tracing (snapshots, screenshots, sources and network) per test.
+ * Every test has its own BrowserContext, so tracing is started with the
+ * context and stopped before it closes. Selected with
+ * -Dtrace=(off|retain-on-failure|always), default retain-on-failure: the trace
+ * of a passing test is dropped by the driver without being written, a
+ * failing test's trace is saved as target/traces/&lt;TestClass&gt;/&lt;method&gt;-&lt;time&gt;.zip
+ * (-Dtrace.dir). After each save the oldest traces are evicted beyond
+ * -Dtrace.maxFiles (default 50) or -Dtrace.maxTotalMB (default 500).
+ * Open a trace with {@code mvn exec:java -Dexec.mainClass=com.microsoft.playwright.CLI -Dexec.args="show-trace <zip>"}.
+ */
+public final class TraceRecorder {
+    private static final ThreadLocal<Path> PENDING = new ThreadLocal<>();
+
+    private TraceRecorder() {
+    }
+
+    private static String policy() {
+        return System.getProperty("trace", "retain-on-failure").trim().toLowerCase();
+    }
+
+    public static Path traceDir() {
+        return Paths.get(System.getProperty("trace.dir", Paths.get("target", "traces").toString()));
+    }
+
+    /** Start tracing the context for this test; no-op with -Dtrace=off. */
+    public static void start(BrowserContext context, Class<?> testClass, String testName) {
+        PENDING.remove();
+        if ("off".equals(policy()) || "false".equals(policy())) {
+            return;
+        }
+        String name = (testName == null ? "default" : testName) + "-" + System.currentTimeMillis();
+        try {
+            context.tracing().start(new Tracing.StartOptions()
+                    .setTitle(testClass.getSimpleName() + "." + (testName == null ? "default" : testName))
+                    .setSnapshots(true)
+                    .setScreenshots(true)
+                    .setSources(true));
+            PENDING.set(traceDir().resolve(testClass.getSimpleName()).resolve(name + ".zip"));
+        } catch (Exception e) {
+            System.out.println("[TraceRecorder] Could not start tracing: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stop tracing before the context closes. Returns the trace file when it
+     * was kept for this outcome, otherwise null.
+     */
+    public static Path stop(BrowserContext context, boolean passed) {
+        Path target = PENDING.get();
+        PENDING.remove();
+        if (target == null || context == null) {
+            return null;
+        }
+        boolean keep = "always".equals(policy()) || !passed;
+        try {
+            if (keep) {
+                Files.createDirectories(target.getParent());
+                context.tracing().stop(new Tracing.StopOptions().setPath(target));
+            } else {
+                // without a path the trace is discarded by the driver
+                context.tracing().stop();
+            }
+        } catch (Exception e) {
+            System.out.println("[TraceRecorder] Could not stop tracing: " + e.getMessage());
+            return null;
+        }
+        if (!keep) {
+            return null;
+        }
+        BackgroundIo.submit(() -> {
+            evict();
+            return null;
+        });
+        return target;
+    }
+
+    /** Delete the oldest traces until both the count and the total size caps hold. */
+    static synchronized void evict() throws IOException {
+        Path dir = traceDir();
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        int maxFiles = Integer.getInteger("trace.maxFiles", 50);
+        long maxBytes = Long.getLong("trace.maxTotalMB", 500) * 1024 * 1024;
+        List<Path> traces;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            traces = new ArrayList<>(walk.filter(p -> p.toString().endsWith(".zip")).toList());
+        }
+        traces.sort(Comparator.comparing(TraceRecorder::modified).reversed());
+        long total = 0;
+        int evicted = 0;
+        for (int i = 0; i < traces.size(); i++) {
+            Path trace = traces.get(i);
+            long size = Files.size(trace);
+            // the newest trace is always kept, it was just reported
+            if (i > 0 && (i >= maxFiles || total + size > maxBytes)) {
+                Files.deleteIfExists(trace);
+                evicted++;
+            } else {
+                total += size;
+            }
+        }
+        if (evicted > 0) {
+            System.out.println("[TraceRecorder] Evicted " + evicted + " old traces from " + dir);
+        }
+    }
+
+    private static FileTime modified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
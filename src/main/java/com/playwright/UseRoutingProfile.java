@@ -0,0 +1,19 @@
+package com.playwright;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects the RoutingProfile that BaseSetup applies to the BrowserContext of
+ * every test in the annotated class, overriding -DnetworkProfile.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Inherited
+public @interface UseRoutingProfile {
+    /** Profile name, e.g. "functional-minimal". */
+    String value();
+}
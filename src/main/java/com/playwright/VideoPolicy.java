@@ -0,0 +1,55 @@
+package com.playwright;
+
+/**
+ * When BrowserContext video recording is enabled and which videos are kept.
+ * Selected with -Dvideo=(off|retain-on-failure|always); the frame size comes
+ * from -Dvideo.size=WIDTHxHEIGHT (default: Playwright's choice, the viewport
+ * scaled down to fit 800x800).
+ */
+public enum VideoPolicy {
+    /** No recording at all, so no encoding cost. */
+    OFF,
+    /** Record every test but delete the video of tests that pass. */
+    RETAIN_ON_FAILURE,
+    /** Record and keep every video. */
+    ALWAYS;
+
+    public static VideoPolicy fromSystemProperties() {
+        String value = System.getProperty("video", "retain-on-failure").trim().toLowerCase();
+        switch (value) {
+            case "off":
+            case "false":
+                return OFF;
+            case "always":
+            case "on":
+            case "true":
+                return ALWAYS;
+            default:
+                return RETAIN_ON_FAILURE;
+        }
+    }
+
+    public boolean records() {
+        return this != OFF;
+    }
+
+    /** Whether a video of a test with the given outcome should be kept. */
+    public boolean keeps(boolean passed) {
+        return this == ALWAYS || (this == RETAIN_ON_FAILURE && !passed);
+    }
+
+    /** Returns {width, height} from -Dvideo.size, or null to keep Playwright's default. */
+    public static int[] videoSize() {
+        String value = System.getProperty("video.size", "").trim().toLowerCase();
+        if (value.isEmpty()) {
+            return null;
+        }
+        String[] parts = value.split("x");
+        try {
+            return new int[] { Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()) };
+        } catch (RuntimeException e) {
+            System.out.println("[VideoPolicy] Ignoring invalid -Dvideo.size=" + value);
+            return null;
+        }
+    }
+}
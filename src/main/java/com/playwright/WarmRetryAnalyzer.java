@@ -0,0 +1,35 @@
+package com.playwright;
+
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+import com.playwright.report.TestReporter;
+
+/**
+ * Retries a failed test method -Dretry.count times (default 1, 0 disables).
+ * The retry goes through BaseSetup's @AfterMethod/@BeforeMethod again, so it
+ * runs in a fresh BrowserContext on the browser BrowserPool already has
+ * running; a cached login is reused. Quarantined tests are not retried.
+ * Attached to every @Test by FlakyTestListener.
+ */
+public class WarmRetryAnalyzer implements IRetryAnalyzer {
+    private static final int MAX_RETRIES = Integer.getInteger("retry.count", 1);
+
+    private int retries;
+
+    @Override
+    public boolean retry(ITestResult result) {
+        if (retries >= MAX_RETRIES || FlakyTestListener.isQuarantined(result)) {
+            return false;
+        }
+        retries++;
+        String test = FlakyTestListener.key(result);
+        System.out.println("[WarmRetryAnalyzer] Retrying " + test + " (" + retries + "/" + MAX_RETRIES + ") after: "
+                + result.getThrowable());
+        TestReporter reporter = BaseSetup.getTestReporter();
+        if (reporter != null) {
+            reporter.warning("Failed, retrying in a fresh BrowserContext: " + result.getThrowable());
+        }
+        return true;
+    }
+}
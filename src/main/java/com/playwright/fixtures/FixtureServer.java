@@ -0,0 +1,188 @@
+package com.playwright.fixtures;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process HTTP server with local copies of the demo pages the tests use:
+ * /inputs, /windows, /windows/new and a login (/auth/login) to dashboard
+ * (/dashboard/index) flow with the Admin/admin123 account. Runs on
+ * 127.0.0.1 (-Dfixture.port, default ephemeral) so timings do not depend on
+ * a public site. -Dfixture.latencyMs delays every response and
+ * -Dfixture.bandwidthKbps throttles response bodies to simulate slow links.
+ */
+public final class FixtureServer {
+    private static final String SESSION_COOKIE = "fixture_session";
+    private static final String USERNAME = "Admin";
+    private static final String PASSWORD = "admin123";
+
+    private static FixtureServer instance;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private final long latencyMillis = Long.getLong("fixture.latencyMs", 0);
+    private final long bandwidthKbps = Long.getLong("fixture.bandwidthKbps", 0);
+
+    private FixtureServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        // cached pool: injected latency must not serialize concurrent tests
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "fixture-server");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /** Start the shared server if it is not running yet and return it. */
+    public static synchronized FixtureServer start() {
+        if (instance == null) {
+            try {
+                instance = new FixtureServer(Integer.getInteger("fixture.port", 0));
+                System.out.println("[FixtureServer] Serving fixtures at " + instance.baseUrl()
+                        + " (latency " + instance.latencyMillis + " ms, bandwidth "
+                        + (instance.bandwidthKbps > 0 ? instance.bandwidthKbps + " kbps" : "unlimited") + ")");
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not start fixture server", e);
+            }
+        }
+        return instance;
+    }
+
+    public static synchronized void stop() {
+        if (instance != null) {
+            instance.server.stop(0);
+            instance.executor.shutdownNow();
+            instance = null;
+        }
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            String path = exchange.getRequestURI().getPath();
+            switch (path) {
+                case "/":
+                    redirect(exchange, loggedIn(exchange) ? "/dashboard/index" : "/auth/login");
+                    break;
+                case "/inputs":
+                    html(exchange, 200, "Inputs", "<h3>Inputs</h3><p>Number</p><input type=\"number\">");
+                    break;
+                case "/windows":
+                    html(exchange, 200, "The Internet", "<h3>Opening a new window</h3>"
+                            + "<a href=\"/windows/new\" target=\"_blank\">Click Here</a>");
+                    break;
+                case "/windows/new":
+                    html(exchange, 200, "New Window", "<h3>New Window</h3>");
+                    break;
+                case "/auth/login":
+                    login(exchange);
+                    break;
+                case "/dashboard/index":
+                    if (loggedIn(exchange)) {
+                        html(exchange, 200, "OrangeHRM", "<header><span class=\"oxd-userdropdown-name\">Admin User</span></header>"
+                                + "<h6>Dashboard</h6>");
+                    } else {
+                        redirect(exchange, "/auth/login");
+                    }
+                    break;
+                default:
+                    html(exchange, 404, "Not Found", "<h3>Not Found</h3>");
+                    break;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void login(HttpExchange exchange) throws IOException, InterruptedException {
+        if ("POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            if (USERNAME.equals(form.get("username")) && PASSWORD.equals(form.get("password"))) {
+                String session = UUID.randomUUID().toString();
+                sessions.add(session);
+                exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + session + "; Path=/; HttpOnly");
+                redirect(exchange, "/dashboard/index");
+                return;
+            }
+        }
+        html(exchange, 200, "OrangeHRM", "<form method=\"post\" action=\"/auth/login\">"
+                + "<input name=\"username\" placeholder=\"Username\">"
+                + "<input name=\"password\" type=\"password\" placeholder=\"Password\">"
+                + "<button type=\"submit\" class=\"orangehrm-login-button\">Login</button></form>");
+    }
+
+    private boolean loggedIn(HttpExchange exchange) {
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && SESSION_COOKIE.equals(pair[0]) && sessions.contains(pair[1])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            String[] kv = pair.split("=", 2);
+            if (kv.length == 2) {
+                form.put(URLDecoder.decode(kv[0], StandardCharsets.UTF_8), URLDecoder.decode(kv[1], StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private void html(HttpExchange exchange, int status, String title, String body) throws IOException, InterruptedException {
+        byte[] bytes = ("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>" + title + "</title></head><body>"
+                + body + "</body></html>").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (bandwidthKbps <= 0) {
+                out.write(bytes);
+                return;
+            }
+            // send ~100 ms worth of bytes at a time
+            int chunk = (int) Math.max(1, bandwidthKbps * 1000 / 8 / 10);
+            for (int offset = 0; offset < bytes.length; offset += chunk) {
+                int length = Math.min(chunk, bytes.length - offset);
+                out.write(bytes, offset, length);
+                out.flush();
+                Thread.sleep(length * 8L / bandwidthKbps);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.playwright.report;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gson.Gson;
+
+/**
+ * Append-only JSON-lines log of report events (test start, step, test end)
+ * written while tests run. Only a small write buffer is kept in memory; the
+ * HTML report is rendered from the file once at the end by EventLogRenderer.
+ * The report directory defaults to target/reports (-Dreport.dir).
+ */
+public final class EventLog {
+    private static final Gson GSON = new Gson();
+    private static Writer writer;
+    private static Path file;
+
+    private EventLog() {
+    }
+
+    public static Path reportDir() {
+        return Paths.get(System.getProperty("report.dir", Paths.get("target", "reports").toString()));
+    }
+
+    public static Path eventsFile() {
+        return reportDir().resolve("events.jsonl");
+    }
+
+    /** Start a fresh log for this run. Does nothing if already open. */
+    public static synchronized void open() {
+        if (writer != null) {
+            return;
+        }
+        file = eventsFile();
+        try {
+            Files.createDirectories(file.getParent());
+            writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+        } catch (IOException e) {
+            System.out.println("[EventLog] Cannot open " + file + ": " + e.getMessage());
+        }
+    }
+
+    /** Append one event built from alternating key/value pairs; null values are left out. */
+    public static void append(String type, Object... fields) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", type);
+        event.put("ts", System.currentTimeMillis());
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            if (fields[i + 1] != null) {
+                event.put((String) fields[i], fields[i + 1]);
+            }
+        }
+        String line = GSON.toJson(event);
+        synchronized (EventLog.class) {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.write(line);
+                writer.write('\n');
+            } catch (IOException e) {
+                System.out.println("[EventLog] Write failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /** Push buffered events to disk, e.g. when a test ends. */
+    public static synchronized void flush() {
+        if (writer != null) {
+            try {
+                writer.flush();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /** Flush and close the log; returns its path or null if it was never opened. */
+    public static synchronized Path close() {
+        if (writer == null) {
+            return null;
+        }
+        try {
+            writer.close();
+        } catch (IOException ignored) {
+        }
+        writer = null;
+        return file;
+    }
+}
@@ -0,0 +1,134 @@
+package com.playwright.report;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.configuration.Theme;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Renders the Spark HTML report from an EventLog file in a single pass and a
+ * single flush. Screenshots are shown as thumbnails linking to the full-size
+ * file (see MediaEmbedder). Runs automatically at suite end and can be run on demand:
+ * <pre>
+ * java com.playwright.report.EventLogRenderer [events.jsonl] [AutomationReport.html]
+ * </pre>
+ */
+public final class EventLogRenderer {
+
+    private EventLogRenderer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path events = args.length > 0 ? Paths.get(args[0]) : EventLog.eventsFile();
+        Path html = args.length > 1 ? Paths.get(args[1]) : EventLog.reportDir().resolve("AutomationReport.html");
+        render(events, html);
+    }
+
+    public static void render(Path events, Path html) throws IOException {
+        ExtentSparkReporter spark = new ExtentSparkReporter(html.toString());
+        spark.config().setTheme(Theme.STANDARD);
+        spark.config().setDocumentTitle("Automation Report");
+        spark.config().setReportName("Playwright Java Tests");
+        ExtentReports extent = new ExtentReports();
+        extent.attachReporter(spark);
+
+        // first pass: start all thumbnails in parallel before the report is built
+        MediaEmbedder media = new MediaEmbedder(html.toAbsolutePath().getParent());
+        try (BufferedReader reader = Files.newBufferedReader(events, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.contains("\"media\"")) {
+                    JsonObject event = parse(line);
+                    if (event != null && event.has("media")) {
+                        media.prepare(event.get("media").getAsString());
+                    }
+                }
+            }
+        }
+
+        Map<Long, ExtentTest> open = new HashMap<>();
+        Set<Long> failedLogged = new HashSet<>();
+        int tests = 0;
+        try (BufferedReader reader = Files.newBufferedReader(events, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonObject event = parse(line);
+                if (event == null) {
+                    continue;
+                }
+                long id = event.has("test") ? event.get("test").getAsLong() : -1;
+                switch (event.get("type").getAsString()) {
+                    case "test-start":
+                        open.put(id, extent.createTest(event.get("name").getAsString()));
+                        tests++;
+                        break;
+                    case "log": {
+                        ExtentTest test = open.get(id);
+                        if (test == null) {
+                            break;
+                        }
+                        Status status = Status.valueOf(event.get("status").getAsString());
+                        String message = event.has("message") ? event.get("message").getAsString() : "";
+                        if (event.has("media")) {
+                            test.log(status, message + "<br>" + media.html(event.get("media").getAsString()));
+                        } else {
+                            test.log(status, message);
+                        }
+                        if (status == Status.FAIL) {
+                            failedLogged.add(id);
+                        }
+                        break;
+                    }
+                    case "test-end": {
+                        ExtentTest test = open.remove(id);
+                        if (test == null) {
+                            break;
+                        }
+                        Status status = Status.valueOf(event.get("status").getAsString());
+                        String error = event.has("error") ? event.get("error").getAsString() : null;
+                        if (status == Status.FAIL && !failedLogged.contains(id)) {
+                            test.fail(error != null ? error : "Test failed");
+                        } else if (status == Status.SKIP) {
+                            test.skip(error != null ? error : "Test skipped");
+                        }
+                        failedLogged.remove(id);
+                        break;
+                    }
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            media.close();
+        }
+        extent.flush();
+        System.out.println("[EventLogRenderer] Rendered " + tests + " tests from " + events + " to " + html
+                + " (" + media.thumbnailCount() + " thumbnails, " + media.embeddedBytes() / 1024 + " KB embedded)");
+    }
+
+    private static JsonObject parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return JsonParser.parseString(line).getAsJsonObject();
+        } catch (RuntimeException e) {
+            // a partially written last line after a crash
+            return null;
+        }
+    }
+}
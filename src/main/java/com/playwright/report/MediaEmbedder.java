@@ -0,0 +1,122 @@
+package com.playwright.report;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Turns screenshot paths from the event log into report HTML: a small JPEG
+ * thumbnail linked to the full-size image, which is only referenced by a path
+ * relative to the report and loaded when opened. Thumbnails are generated in
+ * parallel up front and written next to the report under thumbs/. The first
+ * thumbnails are inlined as data URIs until -Dreport.maxEmbeddedBytes (default
+ * 2 MB) is used up; the rest are lazy-loaded from thumbs/.
+ */
+final class MediaEmbedder {
+    private static final int THUMB_WIDTH = Integer.getInteger("report.thumbnailWidth", 320);
+    private static final long MAX_EMBEDDED_BYTES = Long.getLong("report.maxEmbeddedBytes", 2L * 1024 * 1024);
+
+    private final Path reportDir;
+    private final Path thumbDir;
+    private final Map<String, CompletableFuture<Path>> thumbnails = new LinkedHashMap<>();
+    private final ExecutorService executor;
+    private long embeddedBytes;
+
+    MediaEmbedder(Path reportDir) {
+        this.reportDir = reportDir.toAbsolutePath();
+        this.thumbDir = this.reportDir.resolve("thumbs");
+        this.executor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread t = new Thread(r, "report-thumbnails");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Start generating the thumbnail for a screenshot; repeated paths are only done once. */
+    void prepare(String media) {
+        thumbnails.computeIfAbsent(media, m -> CompletableFuture.supplyAsync(() -> thumbnail(Path.of(m)), executor));
+    }
+
+    /** HTML for one screenshot; a plain link when no thumbnail could be made. */
+    String html(String media) {
+        prepare(media);
+        Path full = Path.of(media).toAbsolutePath();
+        String href = relative(full);
+        Path thumb = thumbnails.get(media).join();
+        if (thumb == null) {
+            return "<a href=\"" + href + "\" target=\"_blank\">screenshot</a>";
+        }
+        String src = relative(thumb);
+        try {
+            long size = Files.size(thumb);
+            if (embeddedBytes + size <= MAX_EMBEDDED_BYTES) {
+                embeddedBytes += size;
+                src = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(Files.readAllBytes(thumb));
+            }
+        } catch (IOException ignored) {
+            // keep the relative reference
+        }
+        return "<a href=\"" + href + "\" target=\"_blank\"><img loading=\"lazy\" src=\"" + src
+                + "\" width=\"" + THUMB_WIDTH + "\" alt=\"screenshot\"></a>";
+    }
+
+    long embeddedBytes() {
+        return embeddedBytes;
+    }
+
+    int thumbnailCount() {
+        return thumbnails.size();
+    }
+
+    void close() {
+        executor.shutdownNow();
+    }
+
+    private Path thumbnail(Path full) {
+        try {
+            if (!Files.exists(full)) {
+                return null;
+            }
+            String name = full.getFileName().toString().replaceFirst("\\.[^.]+$", "") + "-thumb.jpg";
+            Path thumb = thumbDir.resolve(name);
+            if (Files.exists(thumb) && Files.getLastModifiedTime(thumb).compareTo(Files.getLastModifiedTime(full)) >= 0) {
+                return thumb;
+            }
+            BufferedImage source = ImageIO.read(full.toFile());
+            if (source == null) {
+                return null;
+            }
+            int width = Math.min(THUMB_WIDTH, source.getWidth());
+            int height = Math.max(1, source.getHeight() * width / source.getWidth());
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = scaled.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, width, height, null);
+            g.dispose();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(scaled, "jpg", out);
+            Files.createDirectories(thumbDir);
+            Files.write(thumb, out.toByteArray());
+            return thumb;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("[MediaEmbedder] No thumbnail for " + full + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private String relative(Path path) {
+        return reportDir.relativize(path.toAbsolutePath()).toString().replace('\\', '/');
+    }
+}
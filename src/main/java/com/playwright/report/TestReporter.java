@@ -0,0 +1,76 @@
+package com.playwright.report;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Media;
+
+/**
+ * Per-test reporter handed out by BaseSetup.getTestReporter(). It has the
+ * same logging methods the tests used on ExtentTest, but every call is
+ * appended to the EventLog instead of being kept in an in-memory report.
+ */
+public class TestReporter {
+    private static final AtomicLong IDS = new AtomicLong();
+
+    private final long id;
+    private final long startMillis = System.currentTimeMillis();
+
+    private TestReporter(long id) {
+        this.id = id;
+    }
+
+    /** Log the start of a test and return its reporter. */
+    public static TestReporter start(String name, String className) {
+        TestReporter reporter = new TestReporter(IDS.incrementAndGet());
+        EventLog.append("test-start", "test", reporter.id, "name", name, "class", className);
+        return reporter;
+    }
+
+    /** Id of this test in the event log, unique within the run. */
+    public long id() {
+        return id;
+    }
+
+    /** Log the end of the test with its TestNG outcome. */
+    public void end(Status status, Throwable error) {
+        EventLog.append("test-end", "test", id, "status", status.name(),
+                "durationMs", System.currentTimeMillis() - startMillis,
+                "error", error == null ? null : error.toString());
+        EventLog.flush();
+    }
+
+    public TestReporter log(Status status, String message) {
+        return log(status, message, null);
+    }
+
+    public TestReporter log(Status status, String message, Media media) {
+        EventLog.append("log", "test", id, "status", status.name(), "message", message,
+                "media", media == null ? null : media.getPath());
+        return this;
+    }
+
+    public TestReporter info(String message) {
+        return log(Status.INFO, message);
+    }
+
+    public TestReporter pass(String message) {
+        return log(Status.PASS, message);
+    }
+
+    public TestReporter fail(String message) {
+        return log(Status.FAIL, message);
+    }
+
+    public TestReporter fail(String message, Media media) {
+        return log(Status.FAIL, message, media);
+    }
+
+    public TestReporter warning(String message) {
+        return log(Status.WARNING, message);
+    }
+
+    public TestReporter skip(String message) {
+        return log(Status.SKIP, message);
+    }
+}
@@ -0,0 +1,62 @@
+package com.playwright.utils;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small bounded executor for disk work (writing screenshots, deleting
+ * artifacts) so the browser thread does not wait on file I/O. When the queue
+ * is full the caller runs the task itself, which keeps memory bounded.
+ */
+public final class BackgroundIo {
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+            2, 2, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(64),
+            r -> {
+                Thread t = new Thread(r, "background-io-" + THREAD_IDS.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    private static final Set<CompletableFuture<?>> PENDING = ConcurrentHashMap.newKeySet();
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private BackgroundIo() {
+    }
+
+    public static <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        PENDING.add(future);
+        future.whenComplete((value, error) -> PENDING.remove(future));
+        EXECUTOR.execute(() -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    /** Wait until all tasks submitted so far are done, e.g. before rendering the report. */
+    public static void awaitPending(long timeout, TimeUnit unit) {
+        // failed tasks count as done; callers handle their own futures' errors
+        CompletableFuture<?>[] pending = PENDING.stream()
+                .map(f -> f.handle((value, error) -> null))
+                .toArray(CompletableFuture<?>[]::new);
+        try {
+            CompletableFuture.allOf(pending).get(timeout, unit);
+        } catch (Exception e) {
+            System.out.println("[BackgroundIo] " + PENDING.size() + " task(s) still pending: " + e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.playwright.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.options.LoadState;
+
+/**
+ * Races several page conditions (URL, visible selector, load state, network
+ * idle) under one overall time budget and reports which one was met first.
+ * Conditions are probed on the calling thread, as Playwright requires, and
+ * page events keep being dispatched between probes.
+ *
+ * <pre>
+ * WaitResult result = CompositeWait.on(page).named("login")
+ *         .url("**&#47;dashboard**")
+ *         .selector(".oxd-userdropdown-name")
+ *         .await(15000);
+ * </pre>
+ */
+public class CompositeWait {
+    private static final long MIN_POLL_MILLIS = 25;
+    private static final long MAX_POLL_MILLIS = 200;
+
+    private final Page page;
+    private final List<Condition> conditions = new ArrayList<>();
+    private String name = "wait";
+    private long networkQuietMillis = -1;
+
+    private interface Probe {
+        boolean met();
+    }
+
+    private static final class Condition {
+        final String label;
+        final Probe probe;
+
+        Condition(String label, Probe probe) {
+            this.label = label;
+            this.probe = probe;
+        }
+    }
+
+    /** Outcome of a race: the winning condition (null on timeout) and the time it took. */
+    public static class WaitResult {
+        private final String winner;
+        private final long elapsedMillis;
+
+        WaitResult(String winner, long elapsedMillis) {
+            this.winner = winner;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public boolean succeeded() {
+            return winner != null;
+        }
+
+        /** Label of the first condition met, e.g. "selector .oxd-userdropdown-name". */
+        public String winner() {
+            return winner;
+        }
+
+        public boolean wonBy(String label) {
+            return label.equals(winner);
+        }
+
+        public long elapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    private CompositeWait(Page page) {
+        this.page = page;
+    }
+
+    public static CompositeWait on(Page page) {
+        return new CompositeWait(page);
+    }
+
+    /** Name used in the time-to-condition log line. */
+    public CompositeWait named(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /** Page URL matches a glob such as "**&#47;dashboard**". */
+    public CompositeWait url(String glob) {
+        Pattern pattern = globToRegex(glob);
+        conditions.add(new Condition(urlLabel(glob), () -> pattern.matcher(page.url()).matches()));
+        return this;
+    }
+
+    /** First element matching the selector is visible. */
+    public CompositeWait selector(String selector) {
+        conditions.add(new Condition(selectorLabel(selector), () -> page.locator(selector).first().isVisible()));
+        return this;
+    }
+
+    /** Document reached the load state (LOAD, DOMCONTENTLOADED or NETWORKIDLE). */
+    public CompositeWait loadState(LoadState state) {
+        if (state == LoadState.NETWORKIDLE) {
+            return networkIdle(500);
+        }
+        conditions.add(new Condition(loadStateLabel(state), () -> {
+            Object readyState = page.evaluate("document.readyState");
+            return "complete".equals(readyState) || (state == LoadState.DOMCONTENTLOADED && "interactive".equals(readyState));
+        }));
+        return this;
+    }
+
+    /** No request has been in flight for {@code quietMillis}. */
+    public CompositeWait networkIdle(long quietMillis) {
+        networkQuietMillis = quietMillis;
+        return this;
+    }
+
+    public static String urlLabel(String glob) {
+        return "url " + glob;
+    }
+
+    public static String selectorLabel(String selector) {
+        return "selector " + selector;
+    }
+
+    public static String loadStateLabel(LoadState state) {
+        return "load " + state.name().toLowerCase();
+    }
+
+    public static String networkIdleLabel() {
+        return "network idle";
+    }
+
+    /**
+     * Probe all conditions until one is met or the budget runs out. Probe
+     * errors (e.g. the page navigating away mid-evaluate) count as "not met".
+     */
+    public WaitResult await(long budgetMillis) {
+        long start = System.nanoTime();
+        long deadline = start + budgetMillis * 1_000_000;
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicLong lastActivity = new AtomicLong(System.nanoTime());
+        Consumer<Request> started = request -> {
+            inFlight.incrementAndGet();
+            lastActivity.set(System.nanoTime());
+        };
+        Consumer<Request> finished = request -> {
+            inFlight.decrementAndGet();
+            lastActivity.set(System.nanoTime());
+        };
+        List<Condition> all = new ArrayList<>(conditions);
+        if (networkQuietMillis >= 0) {
+            page.onRequest(started);
+            page.onRequestFinished(finished);
+            page.onRequestFailed(finished);
+            all.add(new Condition(networkIdleLabel(), () -> inFlight.get() <= 0
+                    && System.nanoTime() - lastActivity.get() >= networkQuietMillis * 1_000_000));
+        }
+
+        String winner = null;
+        try {
+            long poll = MIN_POLL_MILLIS;
+            while (winner == null) {
+                for (Condition condition : all) {
+                    if (safeMet(condition)) {
+                        winner = condition.label;
+                        break;
+                    }
+                }
+                long remaining = (deadline - System.nanoTime()) / 1_000_000;
+                if (winner != null || remaining <= 0) {
+                    break;
+                }
+                // waitForTimeout keeps dispatching page events while we wait
+                page.waitForTimeout(Math.min(poll, remaining));
+                poll = Math.min(poll * 2, MAX_POLL_MILLIS);
+            }
+        } finally {
+            if (networkQuietMillis >= 0) {
+                page.offRequest(started);
+                page.offRequestFinished(finished);
+                page.offRequestFailed(finished);
+            }
+        }
+
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("[CompositeWait] " + name + ": "
+                + (winner != null ? "'" + winner + "' after " + elapsed + " ms" : "timed out after " + elapsed + " ms")
+                + " (budget " + budgetMillis + " ms)");
+        return new WaitResult(winner, elapsed);
+    }
+
+    private static boolean safeMet(Condition condition) {
+        try {
+            return condition.probe.met();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /** Playwright-style URL glob: "**" spans path segments, "*" does not. */
+    static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*') {
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                    regex.append(".*");
+                    i++;
+                } else {
+                    regex.append("[^/]*");
+                }
+            } else if (c == '?') {
+                regex.append('.');
+            } else if ("\\.[]{}()+-^$|".indexOf(c) >= 0) {
+                regex.append('\\').append(c);
+            } else {
+                regex.append(c);
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
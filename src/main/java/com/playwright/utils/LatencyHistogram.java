@@ -0,0 +1,75 @@
+package com.playwright.utils;
+
+/**
+ * Fixed-bucket latency histogram in milliseconds. Buckets follow the
+ * Prometheus convention: each count is for samples less than or equal to the
+ * bucket bound, and the last bucket is unbounded. Thread-safe.
+ */
+public class LatencyHistogram {
+    /** Upper bounds in milliseconds; the last bucket is +Inf. */
+    public static final double[] BOUNDS_MS = { 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000 };
+
+    private final long[] counts = new long[BOUNDS_MS.length + 1];
+    private long count;
+    private double sumMs;
+    private double minMs = Double.MAX_VALUE;
+    private double maxMs;
+
+    public synchronized void record(double millis) {
+        int bucket = 0;
+        while (bucket < BOUNDS_MS.length && millis > BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+        counts[bucket]++;
+        count++;
+        sumMs += millis;
+        minMs = Math.min(minMs, millis);
+        maxMs = Math.max(maxMs, millis);
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+
+    public synchronized double sumMillis() {
+        return sumMs;
+    }
+
+    public synchronized double minMillis() {
+        return count == 0 ? 0 : minMs;
+    }
+
+    public synchronized double maxMillis() {
+        return maxMs;
+    }
+
+    /** Per-bucket (non-cumulative) counts, one more entry than BOUNDS_MS. */
+    public synchronized long[] bucketCounts() {
+        return counts.clone();
+    }
+
+    /**
+     * Percentile estimate (0-100) by linear interpolation inside the bucket that
+     * holds it, clamped to the observed min and max.
+     */
+    public synchronized double percentile(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        double rank = p / 100.0 * count;
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            if (seen + counts[i] >= rank) {
+                double lower = i == 0 ? 0 : BOUNDS_MS[i - 1];
+                double upper = i < BOUNDS_MS.length ? BOUNDS_MS[i] : maxMs;
+                double estimate = lower + (upper - lower) * ((rank - seen) / counts[i]);
+                return Math.max(minMs, Math.min(maxMs, estimate));
+            }
+            seen += counts[i];
+        }
+        return maxMs;
+    }
+}
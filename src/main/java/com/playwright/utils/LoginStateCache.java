@@ -0,0 +1,196 @@
+package com.playwright.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.options.Cookie;
+import com.microsoft.playwright.options.SameSiteAttribute;
+import com.microsoft.playwright.options.WaitUntilState;
+
+/**
+ * File store for authenticated BrowserContext storage state, keyed by base
+ * URL, user and a hash of the password, so a login with other credentials
+ * (e.g. a negative test with a wrong password) never gets a cached session. States live under target/auth-state (-Dauth.state.dir) and
+ * expire after -Dauth.state.ttlMinutes (default 30, 0 disables the cache).
+ * Files are replaced atomically, so several threads and JVM runs can share
+ * the store; {@link #lockFor} lets threads of one JVM avoid logging in twice.
+ */
+public final class LoginStateCache {
+    private static final Map<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private LoginStateCache() {
+    }
+
+    public static boolean enabled() {
+        return ttl().toMillis() > 0;
+    }
+
+    /** Monitor to hold while performing a UI login for these credentials. */
+    public static Object lockFor(String baseUrl, String user, String password) {
+        return LOCKS.computeIfAbsent(key(baseUrl, user, password), k -> new Object());
+    }
+
+    /**
+     * Path of a stored, unexpired state with at least one cookie, or null.
+     * Can be passed to Browser.NewContextOptions.setStorageStatePath so a new
+     * context starts authenticated.
+     */
+    public static Path validStatePath(String baseUrl, String user, String password) {
+        if (!enabled()) {
+            return null;
+        }
+        Path file = stateFile(baseUrl, user, password);
+        try {
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            Instant saved = Files.getLastModifiedTime(file).toInstant();
+            if (saved.plus(ttl()).isBefore(Instant.now())) {
+                return null;
+            }
+            JsonObject state = JsonParser.parseString(Files.readString(file, StandardCharsets.UTF_8)).getAsJsonObject();
+            return state.has("cookies") && state.getAsJsonArray("cookies").size() > 0 ? file : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Add the cached cookies to the page's context and write the cached
+     * localStorage once, navigating the page to each stored origin to do so.
+     * Nothing is left behind that would write the entries again, so
+     * {@link #clear} fully drops a session the server rejects. Returns false
+     * when there is no valid state; callers should then log in through the
+     * UI and {@link #save} the result.
+     */
+    public static boolean restore(Page page, String baseUrl, String user, String password) {
+        Path file = validStatePath(baseUrl, user, password);
+        if (file == null) {
+            return false;
+        }
+        try {
+            JsonObject state = JsonParser.parseString(Files.readString(file, StandardCharsets.UTF_8)).getAsJsonObject();
+            page.context().addCookies(cookies(state.getAsJsonArray("cookies")));
+            if (state.has("origins")) {
+                for (JsonElement element : state.getAsJsonArray("origins")) {
+                    JsonObject origin = element.getAsJsonObject();
+                    if (origin.has("localStorage") && origin.getAsJsonArray("localStorage").size() > 0) {
+                        page.navigate(origin.get("origin").getAsString(),
+                                new Page.NavigateOptions().setWaitUntil(WaitUntilState.DOMCONTENTLOADED));
+                        page.evaluate("entries => { for (const e of JSON.parse(entries)) { localStorage.setItem(e.name, e.value); } }",
+                                origin.getAsJsonArray("localStorage").toString());
+                    }
+                }
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("[LoginStateCache] Could not restore " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /** Drop a restored session: the context's cookies and the localStorage of the page's current origin. */
+    public static void clear(Page page) {
+        page.context().clearCookies();
+        try {
+            page.evaluate("() => localStorage.clear()");
+        } catch (PlaywrightException e) {
+            // pages without a storage origin (e.g. about:blank) have nothing to clear
+        }
+    }
+
+    /** Store the context's current storage state for these credentials. */
+    public static void save(BrowserContext context, String baseUrl, String user, String password) {
+        if (!enabled()) {
+            return;
+        }
+        Path file = stateFile(baseUrl, user, password);
+        Path tmp = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            context.storageState(new BrowserContext.StorageStateOptions().setPath(tmp));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("[LoginStateCache] Could not save login state: " + e.getMessage());
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /** Delete the stored state, holding the same lock as a UI login that may be saving it. */
+    public static void invalidate(String baseUrl, String user, String password) {
+        synchronized (lockFor(baseUrl, user, password)) {
+            try {
+                Files.deleteIfExists(stateFile(baseUrl, user, password));
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static Duration ttl() {
+        return Duration.ofMinutes(Long.getLong("auth.state.ttlMinutes", 30));
+    }
+
+    private static Path stateFile(String baseUrl, String user, String password) {
+        Path dir = Paths.get(System.getProperty("auth.state.dir", Paths.get("target", "auth-state").toString()));
+        return dir.resolve(key(baseUrl, user, password) + ".json");
+    }
+
+    // the password only enters the digest, it is never written to disk
+    private static String key(String baseUrl, String user, String password) {
+        String normalized = baseUrl.trim().replaceAll("/+$", "").toLowerCase() + "|" + user + "|" + password;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest).substring(0, 24);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<Cookie> cookies(JsonArray array) {
+        List<Cookie> cookies = new ArrayList<>();
+        for (JsonElement element : array) {
+            JsonObject json = element.getAsJsonObject();
+            Cookie cookie = new Cookie(json.get("name").getAsString(), json.get("value").getAsString())
+                    .setDomain(json.get("domain").getAsString())
+                    .setPath(json.get("path").getAsString());
+            if (json.has("expires")) {
+                cookie.setExpires(json.get("expires").getAsDouble());
+            }
+            if (json.has("httpOnly")) {
+                cookie.setHttpOnly(json.get("httpOnly").getAsBoolean());
+            }
+            if (json.has("secure")) {
+                cookie.setSecure(json.get("secure").getAsBoolean());
+            }
+            if (json.has("sameSite")) {
+                cookie.setSameSite(SameSiteAttribute.valueOf(json.get("sameSite").getAsString().toUpperCase()));
+            }
+            cookies.add(cookie);
+        }
+        return cookies;
+    }
+}
@@ -0,0 +1,184 @@
+package com.playwright.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.TimeoutError;
+
+/**
+ * Every page of a BrowserContext (tabs, popups, windows) indexed by creation
+ * order and opener, fed by the context's page event. A page that opened
+ * before anyone started waiting for it is still found, so multi-window flows
+ * never race a waitForPage call. Lookups are non-blocking; the await methods
+ * return null once their budget runs out instead of throwing.
+ *
+ * <pre>
+ * PageRegistry pages = PageRegistry.of(page.context());
+ * int mark = pages.mark();
+ * page.click("a[target=_blank]");
+ * Page tab = pages.awaitOpenedSince(mark, 5000);
+ * </pre>
+ */
+public final class PageRegistry {
+    /** Default budget of the await methods, -Dpages.timeoutMs (10 s). */
+    public static final long DEFAULT_TIMEOUT_MILLIS = Long.getLong("pages.timeoutMs", 10000);
+
+    private static final Map<BrowserContext, PageRegistry> REGISTRIES = new ConcurrentHashMap<>();
+
+    private final BrowserContext context;
+    private final List<Entry> entries = new CopyOnWriteArrayList<>();
+
+    private static final class Entry {
+        final int index;
+        final Page page;
+        volatile Page opener;
+
+        Entry(int index, Page page, Page opener) {
+            this.index = index;
+            this.page = page;
+            this.opener = opener;
+        }
+    }
+
+    private PageRegistry(BrowserContext context) {
+        this.context = context;
+    }
+
+    /**
+     * The registry of the context, created on first use. Pages the context
+     * already has are registered in their current order.
+     */
+    public static PageRegistry of(BrowserContext context) {
+        return REGISTRIES.computeIfAbsent(context, c -> {
+            PageRegistry registry = new PageRegistry(c);
+            c.pages().forEach(registry::register);
+            c.onPage(registry::register);
+            c.onClose(REGISTRIES::remove);
+            return registry;
+        });
+    }
+
+    private Entry register(Page page) {
+        for (Entry entry : entries) {
+            if (entry.page == page) {
+                return entry;
+            }
+        }
+        Entry entry = new Entry(entries.size(), page, page.opener());
+        entries.add(entry);
+        // opener() is null for links with noopener, but the opener still gets the popup event
+        page.onPopup(popup -> register(popup).opener = page);
+        return entry;
+    }
+
+    /** Number of pages seen so far; pass it to openedSince() to ask for pages opened after now. */
+    public int mark() {
+        return entries.size();
+    }
+
+    /** Open pages in creation order. */
+    public List<Page> pages() {
+        return openedSince(0);
+    }
+
+    /** Open pages created after the mark, in creation order. */
+    public List<Page> openedSince(int mark) {
+        List<Page> pages = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.index >= mark && !entry.page.isClosed()) {
+                pages.add(entry.page);
+            }
+        }
+        return pages;
+    }
+
+    /** The newest open page, or null. */
+    public Page latest() {
+        return newest(0, page -> true);
+    }
+
+    /** The newest open page that the given page opened (window.open, target=_blank), or null. */
+    public Page popupOf(Page opener) {
+        Entry entry = newestEntry(0, e -> e.opener == opener);
+        return entry == null ? null : entry.page;
+    }
+
+    /** The newest open page whose current URL matches a glob such as "**&#47;windows/new", or null. */
+    public Page byUrl(String glob) {
+        Pattern pattern = CompositeWait.globToRegex(glob);
+        return newest(0, page -> pattern.matcher(page.url()).matches());
+    }
+
+    /** Wait up to the budget for a page created after the mark; returns the first one or null. */
+    public Page awaitOpenedSince(int mark, long timeoutMillis) {
+        return await("page opened since #" + mark, timeoutMillis, () -> {
+            List<Page> opened = openedSince(mark);
+            return opened.isEmpty() ? null : opened.get(0);
+        });
+    }
+
+    /** Wait up to the budget for a page created after the mark by the given opener, or null. */
+    public Page awaitPopup(Page opener, int mark, long timeoutMillis) {
+        return await("popup since #" + mark, timeoutMillis, () -> {
+            Entry entry = newestEntry(mark, e -> e.opener == opener);
+            return entry == null ? null : entry.page;
+        });
+    }
+
+    /** Wait up to the budget for an open page whose URL matches the glob, or null. */
+    public Page awaitUrl(String glob, long timeoutMillis) {
+        Pattern pattern = CompositeWait.globToRegex(glob);
+        return await("page at " + glob, timeoutMillis, () -> newest(0, page -> pattern.matcher(page.url()).matches()));
+    }
+
+    private interface Lookup {
+        Page find();
+    }
+
+    /**
+     * Check the lookup now and then after every event the context dispatches
+     * until it finds a page or the budget runs out. Waiting goes through
+     * waitForCondition, so it runs on the calling thread as Playwright requires.
+     */
+    private Page await(String label, long timeoutMillis, Lookup lookup) {
+        Page found = lookup.find();
+        if (found != null) {
+            return found;
+        }
+        long start = System.nanoTime();
+        Page[] result = new Page[1];
+        try {
+            context.waitForCondition(() -> (result[0] = lookup.find()) != null,
+                    new BrowserContext.WaitForConditionOptions().setTimeout(timeoutMillis));
+        } catch (TimeoutError e) {
+            // reported below; callers get null
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("[PageRegistry] " + label + ": "
+                + (result[0] != null ? "found after " + elapsed + " ms" : "not found after " + elapsed + " ms")
+                + " (budget " + timeoutMillis + " ms)");
+        return result[0];
+    }
+
+    private Page newest(int mark, Predicate<Page> match) {
+        Entry entry = newestEntry(mark, e -> match.test(e.page));
+        return entry == null ? null : entry.page;
+    }
+
+    private Entry newestEntry(int mark, Predicate<Entry> match) {
+        for (int i = entries.size() - 1; i >= mark; i--) {
+            Entry entry = entries.get(i);
+            if (!entry.page.isClosed() && match.test(entry)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+}
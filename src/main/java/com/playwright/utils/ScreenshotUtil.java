@@ -1,21 +1,149 @@
 package com.playwright.utils;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.Clip;
+import com.microsoft.playwright.options.ScreenshotType;
+import com.playwright.BaseSetup;
+import com.playwright.report.TestReporter;
 
+/**
+ * Captures screenshots as bytes on the test thread and writes them to
+ * target/screenshots on BackgroundIo. Identical images (same content hash)
+ * captured by the same test are written once; later captures return the
+ * path of the first one. Other tests always get their own file.
+ * Defaults come from -Dscreenshot.format=(png|jpeg) and -Dscreenshot.quality.
+ */
 public class ScreenshotUtil {
+    private static final int MAX_REMEMBERED = 1024;
+    private static final Map<String, ScreenshotHandle> BY_HASH = new ConcurrentHashMap<>();
+
+    /** Format, quality and clip settings for a capture. */
+    public static class CaptureOptions {
+        private ScreenshotType type = "jpeg".equalsIgnoreCase(System.getProperty("screenshot.format")) ? ScreenshotType.JPEG : ScreenshotType.PNG;
+        private Integer quality = Integer.getInteger("screenshot.quality");
+        private Clip clip;
+        private boolean fullPage;
+
+        public CaptureOptions png() {
+            type = ScreenshotType.PNG;
+            return this;
+        }
+
+        /** JPEG with the given quality (0-100). */
+        public CaptureOptions jpeg(int quality) {
+            type = ScreenshotType.JPEG;
+            this.quality = quality;
+            return this;
+        }
+
+        public CaptureOptions clip(double x, double y, double width, double height) {
+            clip = new Clip(x, y, width, height);
+            return this;
+        }
+
+        public CaptureOptions fullPage(boolean fullPage) {
+            this.fullPage = fullPage;
+            return this;
+        }
+
+        Page.ScreenshotOptions toPlaywright() {
+            Page.ScreenshotOptions options = new Page.ScreenshotOptions().setType(type).setFullPage(fullPage);
+            if (type == ScreenshotType.JPEG && quality != null) {
+                options.setQuality(quality);
+            }
+            if (clip != null) {
+                options.setClip(clip);
+            }
+            return options;
+        }
+
+        String extension() {
+            return type == ScreenshotType.JPEG ? ".jpg" : ".png";
+        }
+    }
+
+    /**
+     * Result of a capture: the destination path is known right away, the
+     * write itself completes later on BackgroundIo.
+     */
+    public static class ScreenshotHandle {
+        private final String path;
+        private final CompletableFuture<String> written;
+
+        ScreenshotHandle(String path, CompletableFuture<String> written) {
+            this.path = path;
+            this.written = written;
+        }
+
+        /** Path of the image file; it may still be being written. */
+        public String path() {
+            return path;
+        }
+
+        /** Completes with the path once the file is on disk. */
+        public CompletableFuture<String> written() {
+            return written;
+        }
+    }
+
+    /**
+     * Capture the page and return the path the image is (or will be) written
+     * to, or null if the capture failed. The file write happens in the
+     * background; use {@link #capture} to wait for it.
+     */
     public static String takeScreenshot(Page page, String prefix) {
+        ScreenshotHandle handle = capture(page, prefix, new CaptureOptions());
+        return handle == null ? null : handle.path();
+    }
+
+    /**
+     * Capture the page as bytes and hand the write to BackgroundIo. Returns
+     * null if the capture itself failed. An image identical to an earlier one
+     * of the same test returns the earlier handle and is not written again.
+     */
+    public static ScreenshotHandle capture(Page page, String prefix, CaptureOptions options) {
+        byte[] image;
         try {
-            Path dir = Paths.get("target", "screenshots");
-            String fileName = prefix + "-" + UUID.randomUUID().toString() + ".png";
-            Path dest = dir.resolve(fileName);
-            page.screenshot(new Page.ScreenshotOptions().setPath(dest));
-            return dest.toString();
+            image = page.screenshot(options.toPlaywright());
         } catch (Exception e) {
             return null;
         }
+        // dedup within the current test only, so a report never links another test's file
+        TestReporter reporter = BaseSetup.getTestReporter();
+        String key = (reporter == null ? "-" : Long.toString(reporter.id())) + ":" + sha256(image);
+        if (BY_HASH.size() >= MAX_REMEMBERED) {
+            BY_HASH.clear();
+        }
+        return BY_HASH.compute(key, (k, existing) -> existing != null && !existing.written().isCompletedExceptionally()
+                ? existing : write(image, prefix, options));
+    }
+
+    private static ScreenshotHandle write(byte[] image, String prefix, CaptureOptions options) {
+        Path dest = Paths.get("target", "screenshots").resolve(prefix + "-" + UUID.randomUUID() + options.extension());
+        CompletableFuture<String> written = BackgroundIo.submit(() -> {
+            Files.createDirectories(dest.getParent());
+            Files.write(dest, image);
+            return dest.toString();
+        });
+        return new ScreenshotHandle(dest.toString(), written);
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,79 @@
+package com.playwright.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolution time and match count per page object and selector. Collection
+ * costs one extra count() round trip per lookup, so it only runs with
+ * -Dselector.metrics=true. Results are written to target/metrics/selectors.csv.
+ */
+public final class SelectorMetrics {
+    private static final Map<String, Stats> STATS = new ConcurrentHashMap<>();
+
+    private SelectorMetrics() {
+    }
+
+    private static final class Stats {
+        final String pageObject;
+        final String selector;
+        long samples;
+        long totalNanos;
+        long maxNanos;
+        int lastMatches;
+
+        Stats(String pageObject, String selector) {
+            this.pageObject = pageObject;
+            this.selector = selector;
+        }
+    }
+
+    public static boolean enabled() {
+        return Boolean.getBoolean("selector.metrics");
+    }
+
+    public static void record(String pageObject, String selector, long nanos, int matches) {
+        Stats stats = STATS.computeIfAbsent(pageObject + "\u0000" + selector, k -> new Stats(pageObject, selector));
+        synchronized (stats) {
+            stats.samples++;
+            stats.totalNanos += nanos;
+            stats.maxNanos = Math.max(stats.maxNanos, nanos);
+            stats.lastMatches = matches;
+        }
+    }
+
+    /** Write the collected stats, slowest average first. Does nothing when nothing was recorded. */
+    public static void export() {
+        if (STATS.isEmpty()) {
+            return;
+        }
+        List<Stats> all = new ArrayList<>(STATS.values());
+        all.sort((a, b) -> Double.compare(average(b), average(a)));
+        List<String> lines = new ArrayList<>();
+        lines.add("pageObject,selector,samples,avgMs,maxMs,lastMatches");
+        for (Stats s : all) {
+            synchronized (s) {
+                lines.add(String.format("%s,\"%s\",%d,%.2f,%.2f,%d", s.pageObject, s.selector.replace("\"", "\"\""),
+                        s.samples, average(s), s.maxNanos / 1e6, s.lastMatches));
+            }
+        }
+        Path file = StepMetrics.metricsDir().resolve("selectors.csv");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, lines, StandardCharsets.UTF_8);
+            System.out.println("[SelectorMetrics] Wrote " + all.size() + " selectors to " + file);
+        } catch (IOException e) {
+            System.out.println("[SelectorMetrics] Could not write " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static double average(Stats s) {
+        return s.samples == 0 ? 0 : s.totalNanos / 1e6 / s.samples;
+    }
+}
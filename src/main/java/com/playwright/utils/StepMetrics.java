@@ -0,0 +1,139 @@
+package com.playwright.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.gson.GsonBuilder;
+
+/**
+ * Latency histograms for page-object actions, keyed by browser, page object
+ * and action. Filled by BasePage.step() and exported at suite end as
+ * target/metrics/steps.json and target/metrics/steps.prom (Prometheus text
+ * format) so step latency can be compared across builds.
+ */
+public final class StepMetrics {
+    private static final Map<Key, Series> SERIES = new ConcurrentHashMap<>();
+
+    private StepMetrics() {
+    }
+
+    private record Key(String browser, String pageObject, String action) {
+    }
+
+    private static final class Series {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final AtomicLong failures = new AtomicLong();
+    }
+
+    /** Directory for metric exports: target/metrics unless -Dmetrics.dir is set. */
+    public static Path metricsDir() {
+        return Paths.get(System.getProperty("metrics.dir", Paths.get("target", "metrics").toString()));
+    }
+
+    public static void record(String browser, String pageObject, String action, long nanos, boolean success) {
+        Series series = SERIES.computeIfAbsent(new Key(browser, pageObject, action), k -> new Series());
+        series.histogram.record(nanos / 1e6);
+        if (!success) {
+            series.failures.incrementAndGet();
+        }
+    }
+
+    /** Write JSON and Prometheus files. Does nothing when no step ran. */
+    public static void export() {
+        if (SERIES.isEmpty()) {
+            return;
+        }
+        Path dir = metricsDir();
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("steps.json"), toJson(), StandardCharsets.UTF_8);
+            Files.writeString(dir.resolve("steps.prom"), toPrometheus(), StandardCharsets.UTF_8);
+            System.out.println("[StepMetrics] Wrote " + SERIES.size() + " step series to " + dir);
+        } catch (IOException e) {
+            System.out.println("[StepMetrics] Could not write step metrics: " + e.getMessage());
+        }
+    }
+
+    static String toJson() {
+        List<Map<String, Object>> steps = new ArrayList<>();
+        for (Map.Entry<Key, Series> entry : sortedEntries()) {
+            Key key = entry.getKey();
+            LatencyHistogram h = entry.getValue().histogram;
+            Map<String, Object> step = new TreeMap<>();
+            step.put("browser", key.browser);
+            step.put("pageObject", key.pageObject);
+            step.put("action", key.action);
+            step.put("count", h.count());
+            step.put("failures", entry.getValue().failures.get());
+            step.put("sumMs", round(h.sumMillis()));
+            step.put("minMs", round(h.minMillis()));
+            step.put("maxMs", round(h.maxMillis()));
+            step.put("p50Ms", round(h.percentile(50)));
+            step.put("p95Ms", round(h.percentile(95)));
+            step.put("p99Ms", round(h.percentile(99)));
+            step.put("bucketBoundsMs", LatencyHistogram.BOUNDS_MS);
+            step.put("bucketCounts", h.bucketCounts());
+            steps.add(step);
+        }
+        return new GsonBuilder().setPrettyPrinting().create().toJson(Map.of("steps", steps));
+    }
+
+    static String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP pw_step_duration_seconds Page-object action latency.\n");
+        out.append("# TYPE pw_step_duration_seconds histogram\n");
+        for (Map.Entry<Key, Series> entry : sortedEntries()) {
+            String labels = labels(entry.getKey());
+            LatencyHistogram h = entry.getValue().histogram;
+            long[] counts = h.bucketCounts();
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                String le = i < LatencyHistogram.BOUNDS_MS.length ? Double.toString(LatencyHistogram.BOUNDS_MS[i] / 1000) : "+Inf";
+                out.append("pw_step_duration_seconds_bucket{").append(labels).append(",le=\"").append(le).append("\"} ")
+                        .append(cumulative).append('\n');
+            }
+            out.append("pw_step_duration_seconds_sum{").append(labels).append("} ").append(h.sumMillis() / 1000).append('\n');
+            out.append("pw_step_duration_seconds_count{").append(labels).append("} ").append(h.count()).append('\n');
+        }
+        out.append("# HELP pw_step_failures_total Page-object actions that threw.\n");
+        out.append("# TYPE pw_step_failures_total counter\n");
+        for (Map.Entry<Key, Series> entry : sortedEntries()) {
+            out.append("pw_step_failures_total{").append(labels(entry.getKey())).append("} ")
+                    .append(entry.getValue().failures.get()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static List<Map.Entry<Key, Series>> sortedEntries() {
+        List<Map.Entry<Key, Series>> entries = new ArrayList<>(SERIES.entrySet());
+        entries.sort((a, b) -> {
+            Key x = a.getKey();
+            Key y = b.getKey();
+            return (x.browser + x.pageObject + x.action).compareTo(y.browser + y.pageObject + y.action);
+        });
+        return entries;
+    }
+
+    private static String labels(Key key) {
+        return "browser=\"" + escape(key.browser) + "\",page_object=\"" + escape(key.pageObject)
+                + "\",action=\"" + escape(key.action) + "\"";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
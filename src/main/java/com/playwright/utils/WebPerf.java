@@ -0,0 +1,211 @@
+package com.playwright.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import com.playwright.BaseSetup;
+
+/**
+ * Front-end performance of every navigation made through BaseSetup.navigate
+ * and LoginPage.navigateTo: Navigation Timing, paint timing, resource count
+ * and transferred bytes, plus CDP Performance.getMetrics on Chromium. Each
+ * navigation is appended as one row to target/metrics/webperf.csv, which is
+ * kept across runs as a time series (disable with -Dperf.capture=false).
+ * <p>
+ * Budgets come from perf-budgets.properties on the classpath or the file in
+ * -Dperf.budgets: {@code <name>.url=<url substring>} plus
+ * {@code <name>.<metric>=<max>} per metric, e.g. {@code login.loadMs=3000}.
+ * A breach is logged as a warning, or fails the test with
+ * -Dperf.budget.mode=fail.
+ */
+public final class WebPerf {
+    static final String[] METRICS = {"ttfbMs", "domContentLoadedMs", "loadMs", "firstPaintMs", "firstContentfulPaintMs",
+            "resources", "transferBytes", "jsHeapUsedBytes", "nodes", "layoutCount", "scriptMs", "taskMs"};
+    // CDP Performance.getMetrics names mapped to the columns above (seconds are converted to ms)
+    private static final Map<String, String> CDP_METRICS = Map.of(
+            "JSHeapUsedSize", "jsHeapUsedBytes",
+            "Nodes", "nodes",
+            "LayoutCount", "layoutCount",
+            "ScriptDuration", "scriptMs",
+            "TaskDuration", "taskMs");
+    private static final String TIMING_SCRIPT = "() => {"
+            + " const nav = performance.getEntriesByType('navigation')[0];"
+            + " const paints = {}; performance.getEntriesByType('paint').forEach(p => paints[p.name] = p.startTime);"
+            + " const res = performance.getEntriesByType('resource');"
+            + " let bytes = nav ? (nav.transferSize || 0) : 0; res.forEach(r => bytes += r.transferSize || 0);"
+            + " const at = t => nav && t > 0 ? t - nav.startTime : -1;"
+            + " return { ttfbMs: at(nav && nav.responseStart), domContentLoadedMs: at(nav && nav.domContentLoadedEventEnd),"
+            + " loadMs: at(nav && (nav.loadEventEnd || nav.loadEventStart)),"
+            + " firstPaintMs: paints['first-paint'] ?? -1, firstContentfulPaintMs: paints['first-contentful-paint'] ?? -1,"
+            + " resources: res.length, transferBytes: bytes };"
+            + "}";
+
+    private static Properties budgets;
+
+    private WebPerf() {
+    }
+
+    public static boolean enabled() {
+        return Boolean.parseBoolean(System.getProperty("perf.capture", "true"));
+    }
+
+    /**
+     * Collect metrics for the page's current document, append them to the
+     * time series and check budgets. Throws AssertionError on a breach in
+     * fail mode; collection problems are only logged.
+     */
+    public static Map<String, Double> capture(Page page) {
+        if (!enabled()) {
+            return Map.of();
+        }
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        String url = page.url();
+        try {
+            Object timing = page.evaluate(TIMING_SCRIPT);
+            if (timing instanceof Map) {
+                ((Map<?, ?>) timing).forEach((k, v) -> {
+                    if (v instanceof Number) {
+                        metrics.put(k.toString(), ((Number) v).doubleValue());
+                    }
+                });
+            }
+            if ("chromium".equals(engineName(page))) {
+                metrics.putAll(cdpMetrics(page));
+            }
+            record(testName(), url, BaseSetup.browserLabel(page), metrics);
+        } catch (Exception e) {
+            System.out.println("[WebPerf] Could not collect metrics for " + url + ": " + e.getMessage());
+            return metrics;
+        }
+        if (BaseSetup.getTestReporter() != null) {
+            BaseSetup.getTestReporter().info(String.format("Web perf %s: load %.0f ms, FCP %.0f ms, %.0f resources, %.0f KB",
+                    url, metrics.getOrDefault("loadMs", -1d), metrics.getOrDefault("firstContentfulPaintMs", -1d),
+                    metrics.getOrDefault("resources", 0d), metrics.getOrDefault("transferBytes", 0d) / 1024));
+        }
+        checkBudgets(url, metrics);
+        return metrics;
+    }
+
+    private static Map<String, Double> cdpMetrics(Page page) {
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        CDPSession session = page.context().newCDPSession(page);
+        try {
+            session.send("Performance.enable");
+            JsonObject result = session.send("Performance.getMetrics");
+            for (JsonElement element : result.getAsJsonArray("metrics")) {
+                JsonObject metric = element.getAsJsonObject();
+                String column = CDP_METRICS.get(metric.get("name").getAsString());
+                if (column != null) {
+                    double value = metric.get("value").getAsDouble();
+                    metrics.put(column, column.endsWith("Ms") ? value * 1000 : value);
+                }
+            }
+        } finally {
+            session.detach();
+        }
+        return metrics;
+    }
+
+    private static void record(String test, String url, String browser, Map<String, Double> metrics) {
+        StringBuilder row = new StringBuilder();
+        row.append(System.currentTimeMillis()).append(',').append(csv(test)).append(',').append(csv(url)).append(',').append(csv(browser));
+        for (String metric : METRICS) {
+            Double value = metrics.get(metric);
+            row.append(',');
+            if (value != null) {
+                row.append(Math.round(value * 10) / 10.0);
+            }
+        }
+        row.append('\n');
+        Path file = StepMetrics.metricsDir().resolve("webperf.csv");
+        BackgroundIo.submit(() -> {
+            append(file, row.toString());
+            return null;
+        });
+    }
+
+    private static synchronized void append(Path file, String row) throws IOException {
+        Files.createDirectories(file.getParent());
+        if (!Files.exists(file)) {
+            Files.writeString(file, "timestamp,test,url,browser," + String.join(",", METRICS) + "\n", StandardCharsets.UTF_8);
+        }
+        Files.writeString(file, row, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private static void checkBudgets(String url, Map<String, Double> metrics) {
+        Properties all = budgets();
+        boolean fail = "fail".equalsIgnoreCase(System.getProperty("perf.budget.mode", "warn"));
+        StringBuilder breaches = new StringBuilder();
+        for (String key : all.stringPropertyNames()) {
+            if (!key.endsWith(".url") || !url.contains(all.getProperty(key))) {
+                continue;
+            }
+            String name = key.substring(0, key.length() - ".url".length());
+            for (String metric : METRICS) {
+                String max = all.getProperty(name + "." + metric);
+                Double value = metrics.get(metric);
+                if (max != null && value != null && value >= 0 && value > Double.parseDouble(max)) {
+                    breaches.append(String.format(" %s %s=%.0f > %s;", name, metric, value, max));
+                }
+            }
+        }
+        if (breaches.length() == 0) {
+            return;
+        }
+        String message = "Performance budget exceeded for " + url + ":" + breaches;
+        System.out.println("[WebPerf] " + message);
+        if (BaseSetup.getTestReporter() != null) {
+            BaseSetup.getTestReporter().warning(message);
+        }
+        if (fail) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private static synchronized Properties budgets() {
+        if (budgets == null) {
+            budgets = new Properties();
+            String configured = System.getProperty("perf.budgets", "");
+            try (InputStream in = configured.isEmpty()
+                    ? WebPerf.class.getClassLoader().getResourceAsStream("perf-budgets.properties")
+                    : Files.newInputStream(Paths.get(configured))) {
+                if (in != null) {
+                    budgets.load(in);
+                }
+            } catch (IOException e) {
+                System.out.println("[WebPerf] Could not read budgets: " + e.getMessage());
+            }
+        }
+        return budgets;
+    }
+
+    private static String testName() {
+        ITestResult result = Reporter.getCurrentTestResult();
+        return result == null ? "" : result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+    }
+
+    private static String engineName(Page page) {
+        Browser browser = page.context().browser();
+        return browser == null ? "unknown" : browser.browserType().name();
+    }
+
+    private static String csv(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,73 @@
+package pages;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.aventstack.extentreports.MediaEntityBuilder;
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import com.playwright.BaseSetup;
+import com.playwright.utils.ScreenshotUtil;
+import com.playwright.utils.SelectorMetrics;
+import com.playwright.utils.StepMetrics;
+
+/**
+ * Common base for page objects. Selectors are turned into Locators once per
+ * page object and reused; like the Page selector methods they act on the
+ * first match. With -Dselector.metrics=true every lookup also records how long
+ * the selector takes to resolve and how many elements it matches. Actions
+ * wrapped in step() share one reporting/timing/failure path.
+ */
+public abstract class BasePage {
+    protected final Page page;
+    private final Map<String, Locator> all = new HashMap<>();
+    private final Map<String, Locator> first = new HashMap<>();
+
+    protected BasePage(Page page) {
+        this.page = page;
+    }
+
+    /** Cached locator for the first element matching the selector. */
+    protected Locator locator(String selector) {
+        if (SelectorMetrics.enabled()) {
+            Locator matches = all.computeIfAbsent(selector, page::locator);
+            long start = System.nanoTime();
+            int count = matches.count();
+            SelectorMetrics.record(getClass().getSimpleName(), selector, System.nanoTime() - start, count);
+        }
+        return first.computeIfAbsent(selector, s -> page.locator(s).first());
+    }
+
+    /**
+     * Run a page-object action with reporting, timing and failure handling:
+     * logs the description, records the latency in StepMetrics and, if the
+     * action throws, attaches a screenshot to a failed report entry and returns
+     * null. The body logs its own pass message.
+     */
+    protected <T> T step(String action, String description, String failMessage, Supplier<T> body) {
+        BaseSetup.getTestReporter().info(description);
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = body.get();
+            success = true;
+            return result;
+        } catch (Exception e) {
+            String shot = ScreenshotUtil.takeScreenshot(page, action);
+            if (shot != null) BaseSetup.getTestReporter().fail(failMessage, MediaEntityBuilder.createScreenCaptureFromPath(shot).build());
+            else BaseSetup.getTestReporter().fail(failMessage + ": " + e.getMessage());
+            return null;
+        } finally {
+            StepMetrics.record(BaseSetup.browserLabel(page), getClass().getSimpleName(), action, System.nanoTime() - start, success);
+        }
+    }
+
+    /** {@link #step(String, String, String, Supplier)} for actions without a result. */
+    protected void step(String action, String description, String failMessage, Runnable body) {
+        step(action, description, failMessage, () -> {
+            body.run();
+            return null;
+        });
+    }
+}
@@ -1,21 +1,32 @@
 package pages;
 
 import com.microsoft.playwright.Page;
+import com.playwright.utils.CompositeWait;
 
-public class HomePage {
-    private final Page page;
-
+public class HomePage extends BasePage {
     private final String dashboardText = "text=Dashboard";
     private final String userDropdown = ".oxd-userdropdown-name";
 
     public HomePage(Page page) {
-        this.page = page;
+        super(page);
     }
 
     public boolean isDashboardVisible() {
         return safeIsVisible(dashboardText);
     }
 
+    /**
+     * Wait until either the dashboard heading or the user dropdown is visible,
+     * whichever comes first, within one budget.
+     */
+    public boolean waitForDashboard(long budgetMillis) {
+        return CompositeWait.on(page).named("dashboard")
+                .selector(dashboardText)
+                .selector(userDropdown)
+                .await(budgetMillis)
+                .succeeded();
+    }
+
     public String getPageTitle() {
         return page.title();
     }
@@ -26,7 +37,7 @@ public class HomePage {
 
     private boolean safeIsVisible(String selector) {
         try {
-            return page.isVisible(selector);
+            return locator(selector).isVisible();
         } catch (Exception e) {
             return false;
         }
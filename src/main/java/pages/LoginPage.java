@@ -1,55 +1,104 @@
 package pages;
 
 import com.microsoft.playwright.Page;
+import com.playwright.utils.CompositeWait;
+import com.playwright.utils.CompositeWait.WaitResult;
+import com.playwright.utils.LoginStateCache;
+import com.playwright.utils.WebPerf;
 
 /**
  * Page object for the OrangeHRM login page. Encapsulates selectors and
  * actions so tests remain readable and maintainable.
  */
-public class LoginPage {
-	private final Page page;
-
+public class LoginPage extends BasePage {
 	// Locators
 	private final String usernameInput = "input[name='username'], input#txtUsername, input[placeholder='Username']";
 	private final String passwordInput = "input[name='password'], input#txtPassword, input[placeholder='Password']";
 	private final String loginButton = "button[type='submit'], input[type='submit'], button#btnLogin, .orangehrm-login-button";
 
+	private static final String DASHBOARD_URL = "**/dashboard**";
+	private static final String USER_DROPDOWN = ".oxd-userdropdown-name";
+	private static final long LOGIN_BUDGET_MS = Long.getLong("login.waitBudgetMs", 15000);
+
 	public LoginPage(Page page) {
-		this.page = page;
+		super(page);
 	}
 
 	public void navigateTo(String url) {
 		page.navigate(url);
+		WebPerf.capture(page);
 	}
 
 	public void enterUsername(String username) {
-		page.fill(usernameInput, username);
+		locator(usernameInput).fill(username);
 	}
 
 	public void enterPassword(String password) {
-		page.fill(passwordInput, password);
+		locator(passwordInput).fill(password);
 	}
 
 	public void clickLogin() {
-		page.click(loginButton);
+		locator(loginButton).click();
 	}
 
-	/** Convenience method: perform login end-to-end */
+	/**
+	 * Convenience method: perform login end-to-end. A cached storage state for
+	 * this URL and these credentials (see LoginStateCache) is restored first;
+	 * the UI login only runs when no valid state exists or the restored
+	 * session is rejected. Other credentials never share a cached session, so
+	 * failed-login tests still see the login form.
+	 */
 	public void login(String url, String username, String password) {
+		if (!LoginStateCache.enabled()) {
+			// no cache: nothing to share, so concurrent sessions log in independently
+			uiLogin(url, username, password);
+			return;
+		}
+		if (LoginStateCache.restore(page, url, username, password)) {
+			navigateTo(url);
+			if (waitForDashboard(5000)) {
+				return;
+			}
+			// stale session on the server side: drop it and log in again
+			LoginStateCache.invalidate(url, username, password);
+			LoginStateCache.clear(page);
+		}
+		// one UI login per URL and user at a time; other threads reuse its state
+		synchronized (LoginStateCache.lockFor(url, username, password)) {
+			if (LoginStateCache.restore(page, url, username, password)) {
+				navigateTo(url);
+				if (waitForDashboard(5000)) {
+					return;
+				}
+				LoginStateCache.clear(page);
+			}
+			uiLogin(url, username, password);
+			if (page.url().contains("/dashboard")) {
+				LoginStateCache.save(page.context(), url, username, password);
+			}
+		}
+	}
+
+	private void uiLogin(String url, String username, String password) {
 		navigateTo(url);
 		enterUsername(username);
 		enterPassword(password);
 		clickLogin();
-		// wait for either dashboard navigation or the user dropdown to be visible
-		try {
-			// prefer waiting for dashboard URL
-			page.waitForURL("**/dashboard**", new Page.WaitForURLOptions().setTimeout(10000));
-		} catch (Exception e) {
-			try {
-				page.waitForSelector(".oxd-userdropdown-name", new Page.WaitForSelectorOptions().setTimeout(8000));
-			} catch (Exception ignored) {
-				// if both waits fail, continue — callers should handle visibility assertions
-			}
-		}
+		// race dashboard navigation against the user dropdown under one budget;
+		// if neither shows up, callers handle visibility assertions
+		CompositeWait.on(page).named("login")
+				.url(DASHBOARD_URL)
+				.selector(USER_DROPDOWN)
+				.await(LOGIN_BUDGET_MS);
+	}
+
+	/** True when the dashboard shows up before the login form does. */
+	private boolean waitForDashboard(long budgetMillis) {
+		WaitResult result = CompositeWait.on(page).named("restore-session")
+				.url(DASHBOARD_URL)
+				.selector(USER_DROPDOWN)
+				.selector(usernameInput)
+				.await(budgetMillis);
+		return result.succeeded() && !result.wonBy(CompositeWait.selectorLabel(usernameInput));
 	}
 }
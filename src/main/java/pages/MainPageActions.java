@@ -1,66 +1,56 @@
 package pages;
 
-import com.aventstack.extentreports.MediaEntityBuilder;
+import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.options.KeyboardModifier;
 import com.playwright.BaseSetup;
-import com.playwright.utils.ScreenshotUtil;
+import com.playwright.utils.PageRegistry;
 import java.util.List;
 
 /**
  * Page object that contains actions performed on the main page: keyboard,
  * fill, and opening a new tab.
  */
-public class MainPageActions {
-    private final Page page;
+public class MainPageActions extends BasePage {
 
     public MainPageActions(Page page) {
-        this.page = page;
+        super(page);
     }
 
     public void typeTextWithKeyboard(String selector, String text) {
-        try {
-            BaseSetup.getTestReporter().info("Typing text into " + selector + ": " + text);
-            page.click(selector);
+        step("typeTextWithKeyboard", "Typing text into " + selector + ": " + text, "Failed to type text", () -> {
+            locator(selector).click();
             page.keyboard().type(text);
             BaseSetup.getTestReporter().pass("Typed text successfully");
-        } catch (Exception e) {
-            String shot = ScreenshotUtil.takeScreenshot(page, "typeTextWithKeyboard");
-            if (shot != null) BaseSetup.getTestReporter().fail("Failed to type text", MediaEntityBuilder.createScreenCaptureFromPath(shot).build());
-            else BaseSetup.getTestReporter().fail("Failed to type text: " + e.getMessage());
-        }
+        });
     }
 
     public void enterTextDirect(String selector, String text) {
-        try {
-            BaseSetup.getTestReporter().info("Filling text into " + selector + ": " + text);
-            page.fill(selector, text);
+        step("enterTextDirect", "Filling text into " + selector + ": " + text, "Failed to fill text", () -> {
+            locator(selector).fill(text);
             BaseSetup.getTestReporter().pass("Filled text successfully");
-        } catch (Exception e) {
-            String shot = ScreenshotUtil.takeScreenshot(page, "enterTextDirect");
-            if (shot != null) BaseSetup.getTestReporter().fail("Failed to fill text", MediaEntityBuilder.createScreenCaptureFromPath(shot).build());
-            else BaseSetup.getTestReporter().fail("Failed to fill text: " + e.getMessage());
-        }
+        });
     }
 
     /**
      * Open a new tab by clicking a link that opens in new window or using
-     * ctrl/cmd+click. Returns the new Page instance.
+     * ctrl/cmd+click. Returns the new Page instance, or null if no page
+     * opened within PageRegistry.DEFAULT_TIMEOUT_MILLIS.
      */
     public Page openLinkInNewTab(String selector) {
-        try {
-            BaseSetup.getTestReporter().info("Opening link in new tab: " + selector);
+        return step("openLinkInNewTab", "Opening link in new tab: " + selector, "Failed to open link in new tab", () -> {
+            PageRegistry pages = PageRegistry.of(page.context());
+            int mark = pages.mark();
             // Use modifier to open new tab (Ctrl+Click on Windows)
-            page.click(selector, new Page.ClickOptions().setModifiers(List.of(KeyboardModifier.CONTROL)));
-            // Wait for the new page in the browser context
-            Page newPage = page.context().waitForPage(() -> {});
+            locator(selector).click(new Locator.ClickOptions().setModifiers(List.of(KeyboardModifier.CONTROL)));
+            // a tab that opened during the click is already registered
+            Page newPage = pages.awaitOpenedSince(mark, PageRegistry.DEFAULT_TIMEOUT_MILLIS);
+            if (newPage == null) {
+                BaseSetup.getTestReporter().warning("No new tab opened for " + selector);
+                return null;
+            }
             BaseSetup.getTestReporter().pass("New tab opened");
             return newPage;
-        } catch (Exception e) {
-            String shot = ScreenshotUtil.takeScreenshot(page, "openLinkInNewTab");
-            if (shot != null) BaseSetup.getTestReporter().fail("Failed to open link in new tab", MediaEntityBuilder.createScreenCaptureFromPath(shot).build());
-            else BaseSetup.getTestReporter().fail("Failed to open link in new tab: " + e.getMessage());
-            return null;
-        }
+        });
     }
 }
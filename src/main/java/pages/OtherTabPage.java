@@ -1,41 +1,27 @@
 package pages;
 
-import com.aventstack.extentreports.MediaEntityBuilder;
 import com.microsoft.playwright.Page;
 import com.playwright.BaseSetup;
-import com.playwright.utils.ScreenshotUtil;
 
-public class OtherTabPage {
-    private final Page page;
+public class OtherTabPage extends BasePage {
 
     public OtherTabPage(Page page) {
-        this.page = page;
+        super(page);
     }
 
     public String extractHeadingText(String selector) {
-        try {
-            BaseSetup.getTestReporter().info("Extracting text from selector: " + selector);
-            String text = page.textContent(selector);
+        return step("extractHeadingText", "Extracting text from selector: " + selector, "Failed to extract text", () -> {
+            String text = locator(selector).textContent();
             BaseSetup.getTestReporter().pass("Extracted text: " + text);
             return text;
-        } catch (Exception e) {
-            String shot = ScreenshotUtil.takeScreenshot(page, "extractHeadingText");
-            if (shot != null) BaseSetup.getTestReporter().fail("Failed to extract text", MediaEntityBuilder.createScreenCaptureFromPath(shot).build());
-            else BaseSetup.getTestReporter().fail("Failed to extract text: " + e.getMessage());
-            return null;
-        }
+        });
     }
 
     public void performMouseAction(String selector) {
-        try {
-            BaseSetup.getTestReporter().info("Performing mouse move & click on: " + selector);
-            page.hover(selector);
-            page.click(selector);
+        step("performMouseAction", "Performing mouse move & click on: " + selector, "Failed mouse action", () -> {
+            locator(selector).hover();
+            locator(selector).click();
             BaseSetup.getTestReporter().pass("Mouse actions performed");
-        } catch (Exception e) {
-            String shot = ScreenshotUtil.takeScreenshot(page, "performMouseAction");
-            if (shot != null) BaseSetup.getTestReporter().fail("Failed mouse action", MediaEntityBuilder.createScreenCaptureFromPath(shot).build());
-            else BaseSetup.getTestReporter().fail("Failed mouse action: " + e.getMessage());
-        }
+        });
     }
 }
@@ -0,0 +1,78 @@
+package com.playwright;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.testng.annotations.Test;
+
+import pages.BasePage;
+import playwrightTrianing.ActionsTest;
+
+/**
+ * Constant-pool parsing of ClassFileInfo against compiled project classes,
+ * without loading them.
+ */
+public class ClassFileInfoTest {
+
+    /** Only read as bytecode: a long constant (two pool slots), a generic signature and a descriptor-like literal. */
+    static final class Fixture {
+        static final long BIG = 1234567890123L;
+        static final String LITERAL = "Ljava/util/concurrent/Semaphore;";
+        List<LongAdder> adders;
+    }
+
+    private static ClassFileInfo read(Class<?> type) throws IOException {
+        String resource = "/" + type.getName().replace('.', '/') + ".class";
+        try (InputStream in = type.getResourceAsStream(resource)) {
+            return ClassFileInfo.read(in);
+        }
+    }
+
+    @Test
+    public void readsNamesFlagsAndTestAnnotation() throws IOException {
+        ClassFileInfo info = read(ActionsTest.class);
+        assertEquals(info.getClassName(), "playwrightTrianing.ActionsTest");
+        assertEquals(info.getSuperName(), "com.playwright.BaseSetup");
+        assertTrue(info.isConcrete());
+        assertTrue(info.usesDescriptor("Lorg/testng/annotations/Test;"));
+    }
+
+    @Test
+    public void abstractClassIsNotConcrete() throws IOException {
+        ClassFileInfo info = read(BasePage.class);
+        assertEquals(info.getSuperName(), "java.lang.Object");
+        assertFalse(info.isConcrete());
+        assertFalse(info.usesDescriptor("Lorg/testng/annotations/Test;"));
+    }
+
+    @Test
+    public void collectsReferencedClasses() throws IOException {
+        Set<String> referenced = read(ActionsTest.class).getReferencedClasses();
+        assertTrue(referenced.contains("pages.MainPageActions"), referenced.toString());
+        assertTrue(referenced.contains("pages.OtherTabPage"), referenced.toString());
+        assertTrue(referenced.contains("com.playwright.utils.ScreenshotUtil"), referenced.toString());
+        assertFalse(referenced.contains("playwrightTrianing.ActionsTest"), "a class does not reference itself");
+    }
+
+    @Test
+    public void readsTypesFromSignaturesButNotFromStringLiterals() throws IOException {
+        ClassFileInfo info = read(Fixture.class);
+        assertEquals(info.getClassName(), "com.playwright.ClassFileInfoTest$Fixture");
+        Set<String> referenced = info.getReferencedClasses();
+        assertTrue(referenced.contains("java.util.concurrent.atomic.LongAdder"), referenced.toString());
+        assertFalse(referenced.contains("java.util.concurrent.Semaphore"), referenced.toString());
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void rejectsNonClassFiles() throws IOException {
+        ClassFileInfo.read(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }));
+    }
+}
@@ -0,0 +1,92 @@
+package com.playwright;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Retry statistics merged across runs sharing one history file.
+ */
+public class FlakyHistoryTest {
+    private static final String TEST = FlakyHistory.key("pages.CheckoutTest", "pays");
+
+    private Path file;
+
+    @BeforeMethod
+    public void scratchFile() throws IOException {
+        file = Files.createTempDirectory("flaky").resolve("flaky.properties");
+    }
+
+    @Test
+    public void concurrentRunsAddTheirCounts() throws IOException {
+        FlakyHistory first = FlakyHistory.load(file);
+        FlakyHistory second = FlakyHistory.load(file);
+        first.recordRun(TEST, true, true);
+        first.recordRun(TEST, false, true);
+        second.recordRun(TEST, true, false);
+        first.save();
+        second.save();
+
+        FlakyHistory merged = FlakyHistory.load(file);
+        assertEquals(merged.passOnRetryRate(TEST), 1.0 / 3, 1e-9);
+        merged.recordRun(TEST, false, true);
+        assertEquals(merged.passOnRetryRate(TEST), 1.0 / 4, 1e-9);
+    }
+
+    @Test
+    public void savingTwiceDoesNotCountTwice() throws IOException {
+        FlakyHistory history = FlakyHistory.load(file);
+        history.recordRun(TEST, true, true);
+        history.save();
+        history.save();
+        history.recordRun(TEST, false, true);
+        history.save();
+        assertEquals(FlakyHistory.load(file).passOnRetryRate(TEST), 0.5, 1e-9);
+    }
+
+    @Test
+    public void quarantinesOnlyAfterEnoughRunsAboveTheRate() {
+        FlakyHistory history = FlakyHistory.load(file);
+        history.recordRun(TEST, true, true);
+        history.recordRun(TEST, true, true);
+        for (int i = 0; i < 2; i++) {
+            history.recordRun(TEST, false, true);
+        }
+        assertFalse(history.isQuarantined(TEST), "4 runs are below the minimum");
+        history.recordRun(TEST, false, true);
+        assertTrue(history.isQuarantined(TEST), "2 of 5 runs passed on retry");
+
+        String stable = FlakyHistory.key("pages.CheckoutTest", "lists");
+        history.recordRun(stable, true, true);
+        for (int i = 0; i < 4; i++) {
+            history.recordRun(stable, false, true);
+        }
+        assertFalse(history.isQuarantined(stable), "1 of 5 runs passed on retry");
+    }
+
+    @Test
+    public void quarantineStaysWhileQuarantinedRunsAreNotRetried() throws IOException {
+        FlakyHistory history = FlakyHistory.load(file);
+        history.recordRun(TEST, true, true);
+        history.recordRun(TEST, true, true);
+        for (int i = 0; i < 3; i++) {
+            history.recordRun(TEST, false, true);
+        }
+        assertTrue(history.isQuarantined(TEST));
+        // quarantined runs are never retried, so the rate only falls from here
+        for (int i = 0; i < 10; i++) {
+            history.recordRun(TEST, false, i % 2 == 0);
+        }
+        assertTrue(history.passOnRetryRate(TEST) < 0.3);
+        assertTrue(history.isQuarantined(TEST));
+        history.save();
+        assertTrue(FlakyHistory.load(file).isQuarantined(TEST), "the quarantine is stored in the file");
+    }
+}
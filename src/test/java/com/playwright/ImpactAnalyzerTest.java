@@ -0,0 +1,67 @@
+package com.playwright;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test selection over a small hand-built graph:
+ * LoginTest -> LoginPage -> BasePage and CartTest -> CartPage -> BasePage.
+ */
+public class ImpactAnalyzerTest {
+    private static final List<String> TESTS = List.of("t.LoginTest", "t.CartTest");
+
+    private Path baselineFile;
+
+    @BeforeMethod
+    public void scratchBaseline() throws IOException {
+        baselineFile = Files.createTempDirectory("impact").resolve("impact-baseline.properties");
+    }
+
+    private ImpactAnalyzer analyzer(String loginPageHash, String basePageHash, String utilHash) {
+        ImpactAnalyzer analyzer = new ImpactAnalyzer(baselineFile);
+        analyzer.add("t.LoginTest", "1", Set.of("p.LoginPage", "java.lang.String"));
+        analyzer.add("t.CartTest", "2", Set.of("p.CartPage"));
+        analyzer.add("p.LoginPage", loginPageHash, Set.of("p.BasePage"));
+        analyzer.add("p.CartPage", "4", Set.of("p.BasePage"));
+        analyzer.add("p.BasePage", basePageHash, Set.of());
+        analyzer.add("u.Unused", utilHash, Set.of("p.BasePage"));
+        return analyzer;
+    }
+
+    @Test
+    public void selectsEverythingWithoutBaseline() {
+        assertEquals(analyzer("3", "5", "6").affected(TESTS), TESTS);
+    }
+
+    @Test
+    public void selectsNothingWhenNothingChanged() {
+        analyzer("3", "5", "6").saveBaseline();
+        assertEquals(analyzer("3", "5", "6").affected(TESTS), List.of());
+    }
+
+    @Test
+    public void selectsOnlyTestsReachingTheChange() {
+        analyzer("3", "5", "6").saveBaseline();
+        assertEquals(analyzer("3x", "5", "6").affected(TESTS), List.of("t.LoginTest"));
+    }
+
+    @Test
+    public void followsDependentsTransitively() {
+        analyzer("3", "5", "6").saveBaseline();
+        assertEquals(analyzer("3", "5x", "6").affected(TESTS), TESTS);
+    }
+
+    @Test
+    public void ignoresChangesNoTestReaches() {
+        analyzer("3", "5", "6").saveBaseline();
+        assertEquals(analyzer("3", "5", "6x").affected(TESTS), List.of());
+    }
+}
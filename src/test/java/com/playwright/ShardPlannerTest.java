@@ -0,0 +1,93 @@
+package com.playwright;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Shard and partition planning over a scratch duration history.
+ */
+public class ShardPlannerTest {
+
+    private static DurationHistory history(Map<String, Long> millis) throws IOException {
+        DurationHistory history = DurationHistory.load(Files.createTempDirectory("durations").resolve("durations.properties"));
+        millis.forEach(history::recordClass);
+        return history;
+    }
+
+    private static Map<String, Long> durations() {
+        Map<String, Long> millis = new TreeMap<>();
+        millis.put("a.Slow", 90_000L);
+        millis.put("a.Medium", 40_000L);
+        millis.put("b.Medium", 35_000L);
+        millis.put("b.Fast", 10_000L);
+        millis.put("c.Fast", 8_000L);
+        millis.put("c.Fastest", 2_000L);
+        return millis;
+    }
+
+    @AfterMethod
+    public void clearBalance() {
+        System.clearProperty("shard.balance");
+    }
+
+    @Test
+    public void partitionBalancesExpectedRuntime() throws IOException {
+        DurationHistory history = history(durations());
+        List<List<String>> groups = ShardPlanner.partition(new ArrayList<>(durations().keySet()), history, 2);
+        assertEquals(groups, List.of(List.of("a.Slow", "c.Fastest"), List.of("a.Medium", "b.Medium", "b.Fast", "c.Fast")));
+        assertEquals(ShardPlanner.expectedMillis(groups.get(0), history), 92_000);
+        assertEquals(ShardPlanner.expectedMillis(groups.get(1), history), 93_000);
+    }
+
+    @Test
+    public void partitionDoesNotDependOnInputOrder() throws IOException {
+        DurationHistory history = history(durations());
+        List<String> classes = new ArrayList<>(durations().keySet());
+        List<List<String>> expected = ShardPlanner.partition(classes, history, 3);
+        Collections.reverse(classes);
+        assertEquals(ShardPlanner.partition(classes, history, 3), expected);
+    }
+
+    @Test
+    public void shardsCoverEveryClassOnceByName() throws IOException {
+        List<String> classes = new ArrayList<>(List.of("c.Fast", "a.Slow", "b.Fast", "a.Medium", "b.Medium"));
+        List<List<String>> shards = ShardPlanner.shards(classes, history(Map.of()), 2);
+        assertEquals(shards, List.of(List.of("a.Medium", "b.Fast", "c.Fast"), List.of("a.Slow", "b.Medium")));
+    }
+
+    @Test
+    public void durationBalanceFallsBackToNamesWhileHistoryIsIncomplete() throws IOException {
+        System.setProperty("shard.balance", "durations");
+        Map<String, Long> known = durations();
+        List<String> classes = new ArrayList<>(known.keySet());
+        assertEquals(ShardPlanner.shards(classes, history(known), 2), ShardPlanner.partition(classes, history(known), 2));
+
+        known.remove("c.Fastest");
+        List<List<String>> shards = ShardPlanner.shards(classes, history(known), 2);
+        System.clearProperty("shard.balance");
+        assertEquals(shards, ShardPlanner.shards(classes, history(known), 2));
+    }
+
+    @Test
+    public void savedDurationsAreReadBack() throws IOException {
+        Path file = Files.createTempDirectory("durations").resolve("durations.properties");
+        DurationHistory history = DurationHistory.load(file);
+        history.recordClass("a.Slow", 80_000);
+        history.save();
+        DurationHistory reloaded = DurationHistory.load(file);
+        assertTrue(reloaded.knowsAll(List.of("a.Slow")));
+        assertEquals(reloaded.expectedClassMillis("a.Slow"), 80_000);
+    }
+}
@@ -0,0 +1,83 @@
+package com.playwright;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import pages.BasePage;
+import pages.HomePage;
+import playwrightTrianing.ActionsTest;
+
+/**
+ * TestClassIndex over a scratch class directory: test detection and reuse
+ * or invalidation of the cached entries.
+ */
+public class TestClassIndexTest {
+    private Path root;
+    private Path cacheDir;
+
+    @BeforeMethod
+    public void copyClasses() throws IOException {
+        root = Files.createTempDirectory("index-classes");
+        cacheDir = Files.createTempDirectory("index-cache");
+        for (Class<?> type : List.of(ActionsTest.class, BasePage.class, HomePage.class)) {
+            copy(type);
+        }
+    }
+
+    private Path copy(Class<?> type) throws IOException {
+        String resource = type.getName().replace('.', '/') + ".class";
+        Path target = root.resolve(resource);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = type.getResourceAsStream("/" + resource)) {
+            Files.copy(in, target);
+        }
+        return target;
+    }
+
+    private TestClassIndex load() throws IOException {
+        return TestClassIndex.load(List.of(root), cacheDir);
+    }
+
+    @Test
+    public void findsConcreteTestClassesOnly() throws IOException {
+        TestClassIndex index = load();
+        assertEquals(index.testClasses(), List.of("playwrightTrianing.ActionsTest"));
+        assertEquals(index.size(), 3);
+        assertEquals(index.parsedCount(), 3);
+    }
+
+    @Test
+    public void reusesCacheWhenNothingChanged() throws IOException {
+        load();
+        TestClassIndex second = load();
+        assertEquals(second.parsedCount(), 0);
+        assertEquals(second.testClasses(), List.of("playwrightTrianing.ActionsTest"));
+    }
+
+    @Test
+    public void reparsesOnlyChangedFiles() throws IOException {
+        load();
+        Path home = root.resolve("pages/HomePage.class");
+        Files.setLastModifiedTime(home, FileTime.fromMillis(Files.getLastModifiedTime(home).toMillis() + 60_000));
+        assertEquals(load().parsedCount(), 1);
+    }
+
+    @Test
+    public void dropsDeletedClasses() throws IOException {
+        load();
+        Files.delete(root.resolve("playwrightTrianing/ActionsTest.class"));
+        TestClassIndex index = load();
+        assertEquals(index.testClasses(), List.of());
+        assertEquals(index.size(), 2);
+        assertEquals(index.parsedCount(), 0);
+    }
+}
@@ -5,6 +5,7 @@ import org.testng.annotations.Test;
 import com.aventstack.extentreports.MediaEntityBuilder;
 import com.microsoft.playwright.Page;
 import com.playwright.BaseSetup;
+import com.playwright.UseRoutingProfile;
 import com.playwright.utils.ScreenshotUtil;
 
 import pages.MainPageActions;
@@ -12,15 +13,17 @@ import pages.OtherTabPage;
 
 /**
  * Test demonstrates keyboard actions, text entry, opening another tab,
- * extracting text and mouse interactions. Uses https://the-internet.herokuapp.com
- * as a sample site (contains pages for new window and inputs).
+ * extracting text and mouse interactions. Runs against baseUrl(): the local
+ * fixture server by default, or https://the-internet.herokuapp.com with
+ * -DbaseUrl (both contain pages for new window and inputs).
  */
+@UseRoutingProfile("functional-minimal")
 public class ActionsTest extends BaseSetup {
 
     @Test
     public void keyboardAndTabActions() {
         try {
-            String base = "https://the-internet.herokuapp.com";
+            String base = baseUrl();
             Page p = getPage();
             navigate(base + "/inputs");
 
@@ -53,11 +56,9 @@ public class ActionsTest extends BaseSetup {
                 if (shot != null) getTestReporter().fail("open new tab failed", MediaEntityBuilder.createScreenCaptureFromPath(shot).build());
             }
 
-            // If newPage is null, try to get it from context pages
+            // If newPage is null, look the tab up by URL in case it opened without the modifier
             if (newPage == null) {
-                if (p.context().pages().size() > 1) {
-                    newPage = p.context().pages().get(p.context().pages().size() - 1);
-                }
+                newPage = getPages().byUrl("**/windows/new");
             }
 
             if (newPage != null) {
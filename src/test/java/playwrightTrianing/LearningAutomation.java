@@ -3,16 +3,18 @@ package playwrightTrianing;
 import org.testng.annotations.Test;
 
 import com.playwright.BaseSetup;
+import com.playwright.UseRoutingProfile;
 
 import pages.HomePage;
 import pages.LoginPage;
 
 /** TestNG test that demonstrates login using the POM and BaseSetup. */
+@UseRoutingProfile("functional-minimal")
 public class LearningAutomation extends BaseSetup {
 
 	@Test(description = "Smoke test: login to OrangeHRM and verify dashboard")
 	public void loginSmokeTest() {
-		String url = "https://opensource-demo.orangehrmlive.com/";
+		String url = loginUrl();
 		String username = "Admin";
 		String password = "admin123";
 
@@ -20,6 +22,7 @@ public class LearningAutomation extends BaseSetup {
 		HomePage home = new HomePage(getPage());
 
 		login.login(url, username, password);
+		home.waitForDashboard(5000);
 
 		System.out.println("Page title after login: " + title());
 		System.out.println("Dashboard visible: " + home.isDashboardVisible());